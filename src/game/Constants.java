@@ -21,8 +21,13 @@ public final class Constants {
     public static final double BOSS_DASH_SPEED = 520.0;
 
     // Timing
-    public static final double MAX_DT = 1.0 / 30.0; // clamp to avoid tunneling on lags
+    public static final double MAX_DT = 0.25; // only clamps real hitches: collisions are swept, no tunneling on slow frames
+    public static final double SIM_HZ = 120.0; // fixed simulation rate, independent of the display refresh
+    public static final double SIM_DT = 1.0 / SIM_HZ;
 
     // Camera
     public static final double CAMERA_LERP = 10.0;
+
+    // Activity window: margin around the viewport where objects are simulated
+    public static final double ACTIVITY_MARGIN = 384.0;
 }
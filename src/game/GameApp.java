@@ -2,29 +2,42 @@ package game;
 
 import static game.util.ResourceUtil.*;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
-import javafx.scene.Scene;
-import javafx.scene.Group;
-import javafx.animation.AnimationTimer;
-import javafx.scene.input.KeyEvent;
-import javafx.geometry.Bounds;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import game.ui.MenuSonicGrafico;
-import game.ui.HUD;
 import game.state.SaveData;
 import game.audio.SoundManager;
-import game.entities.Player;
-import game.world.CollisionManager;
-import game.world.elements.FinishGate;
-import game.levels.*;
+import game.sim.EngineStats;
 
-public class GameApp extends Application implements MenuSonicGrafico.Listener {
+public class GameApp extends Application implements MenuSonicGrafico.Listener, LevelSession.Listener {
 
     private Stage stage;
+    private MenuSonicGrafico menu;  // costruito una volta, riaperto al ritorno dai livelli
+    private LevelSession session;   // ultimo livello giocato: rigiocarlo lo riavvia sul posto
+
+    // -Dgame.prebuild=false: ogni livello costruito sul thread FX al momento della scelta
+    private static final boolean PREBUILD = Boolean.parseBoolean(System.getProperty("game.prebuild", "true"));
+    // Mondo del prossimo livello costruito in background (un solo thread, priorità minima)
+    private final ExecutorService prebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-prebuild");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private CompletableFuture<LevelSession.Prepared> prebuilt;
+    private int prebuiltIndex = 0;
+    private int waitingFor = 0; // livello scelto mentre il suo mondo è ancora in costruzione (0 = nessuno)
 
     @Override
     public void start(Stage primaryStage) {
         this.stage = primaryStage;
+        EngineStats.register(); // JMX: game:type=EngineStats
             showMenu();
         stage.setTitle("SonicX");
         stage.show();
@@ -38,15 +51,81 @@ public class GameApp extends Application implements MenuSonicGrafico.Listener {
     private void showMenu() {
         // Ensure level music stops when returning to menu
         SoundManager.stopMusic();
-        MenuSonicGrafico menu = new MenuSonicGrafico(this, 1280, 720);
+        if (menu == null) menu = new MenuSonicGrafico(this, 1280, 720);
+        else menu.reopen();
         stage.setScene(menu.getScene());
+        prebuild(nextUnlockedLevel());
     }
 
     @Override
     public void onStartLevelSelected(int index) {
         if (index == 2 && !SaveData.isLevelCompleted(1)) return;
         if (index == 3 && (!SaveData.isLevelCompleted(1) || !SaveData.isLevelCompleted(2))) return;
-        runLevel(index);
+        if (waitingFor == index) return; // già in attesa del suo mondo
+        waitingFor = 0;                  // un'altra scelta annulla l'attesa precedente
+        if (session != null && session.getIndex() == index) {
+            session.restart(); // stesso livello: niente ricostruzione
+            return;
+        }
+        CompletableFuture<LevelSession.Prepared> f = takePrebuilt(index);
+        if (f == null || f.isDone()) {
+            launch(index, f);
+            return;
+        }
+        // ancora in costruzione: il menu resta attivo, il livello parte quando il mondo è pronto
+        waitingFor = index;
+        f.whenComplete((p, ex) -> Platform.runLater(() -> {
+            if (waitingFor != index) return; // scelta cambiata o annullata nel frattempo
+            waitingFor = 0;
+            launch(index, f);
+        }));
+    }
+
+    /** Thread FX: mostra il livello dal mondo preparato (già completato) o, se manca o è fallito, costruendolo qui. */
+    private void launch(int index, Future<LevelSession.Prepared> f) {
+        LevelSession.Prepared ready = (f != null) ? prepared(f, index) : null;
+        session = (ready != null) ? new LevelSession(ready, stage, this) : new LevelSession(index, stage, this);
+        session.start();
+        prebuild(index + 1); // sbloccato se questo viene completato
+    }
+
+    /** Avvia la costruzione in background del livello {@code index} (se non c'è già). */
+    private void prebuild(int index) {
+        if (!PREBUILD || index < 1 || index > 3) return;
+        if (session != null && session.getIndex() == index) return; // già costruito: restart() sul posto
+        if (prebuilt != null && prebuiltIndex == index) return;
+        if (prebuilt != null) prebuilt.cancel(false);
+        prebuiltIndex = index;
+        prebuilt = CompletableFuture.supplyAsync(() -> new LevelSession.Prepared(index), prebuilder);
+    }
+
+    /** Costruzione in background di {@code index} (finita o no), tolta dallo slot; null se non c'è. */
+    private CompletableFuture<LevelSession.Prepared> takePrebuilt(int index) {
+        if (prebuilt == null || prebuiltIndex != index) return null;
+        CompletableFuture<LevelSession.Prepared> f = prebuilt;
+        prebuilt = null;
+        return f;
+    }
+
+    /** Risultato di una costruzione già completata (get() non blocca); null se è fallita. */
+    private static LevelSession.Prepared prepared(Future<LevelSession.Prepared> f, int index) {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            System.err.println("[Prebuild] level " + index + ": " + e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /** Primo livello sbloccato e non ancora completato (tutti completati: il primo). */
+    private static int nextUnlockedLevel() {
+        if (!SaveData.isLevelCompleted(1)) return 1;
+        if (!SaveData.isLevelCompleted(2)) return 2;
+        if (!SaveData.isLevelCompleted(3)) return 3;
+        return 1;
     }
 
     @Override
@@ -54,142 +133,17 @@ public class GameApp extends Application implements MenuSonicGrafico.Listener {
         stage.close();
     }
 
-    private void runLevel(int index) {
-        Group parallax = new Group();
-        Group world = new Group();
-        Group ui = new Group();
-        Group root = new Group(parallax, world, ui);
-        Scene scene = new Scene(root, 1280, 720);
-        stage.setScene(scene);
-
-        // Camera follow (X) con smoothing; parallax si muove più lento
-        final double[] camX = new double[]{0};
-        final double CAMERA_LERP = 0.12;
-
-        Player player = new Player(world, 60, 600);
-        HUD hud = new HUD(ui);
-        CollisionManager cm = new CollisionManager(world, player);
-        player.setDamageContext(cm, world);
-
-        Level level;
-        if (index == 1)      level = new Level1();
-        else if (index == 2) level = new Level2();
-        else                 level = new Level3();
-
-        // FIX: costruisce il livello dentro "world" (non "root")
-        level.build(parallax, world, player, cm);
-
-        // --- VITE & SPAWN ---
-        final int[] lives = { game.Constants.PLAYER_LIVES };
-        hud.setLives(lives[0]);
-
-        double top = level.getGroundY();
-        final double[] spawnX = {200}; // dentro la prima piattaforma (0..400)
-        final double[] spawnY = {top - player.getSprite().getImage().getHeight()}; // appoggiato sul terreno
-
-        // posizionamento iniziale
-        player.getSprite().setTranslateX(spawnX[0]);
-        player.getSprite().setTranslateY(spawnY[0]);
-        player.setVelocityX(0);
-        player.setVelocityY(0);
-
-        // Snap collisioni
-        cm.update(1.0 / 120.0);
-
-        hud.setRings(player.getRings());
-player.getSprite().toFront();
-
-        // FIX: anche il gate sta in "world" per avere bounds coerenti con il player
-        FinishGate gate = new FinishGate(world, level.getFinishX(), level.getGroundY());
-        player.getSprite().toFront();
-
-        // Input
-        scene.addEventFilter(KeyEvent.KEY_PRESSED,  e -> player.onKeyPressed(e.getCode()));
-        scene.addEventFilter(KeyEvent.KEY_RELEASED, e -> player.onKeyReleased(e.getCode()));
-
-        AnimationTimer timer = new AnimationTimer() {
-            private long last = -1;
-            @Override
-            public void handle(long now) {
-                if (last < 0) last = now;
-                double dt = (now - last) / 1_000_000_000.0;
-                last = now;
-                if (dt > game.Constants.MAX_DT) dt = game.Constants.MAX_DT;
-
-                player.tick();
-                cm.update(dt);
-
-                if (player.consumeDeathQueued()) {
-                    // Lose a life and respawn
-                    lives[0]--;
-                    if (lives[0] <= 0) { stop(); showMenu(); return; }
-                    player.getSprite().setTranslateX(spawnX[0]);
-                    player.getSprite().setTranslateY(spawnY[0]);
-                    player.setVelocityX(0); player.setVelocityY(0);
-                    cm.update(1.0/60.0);
-                    camX[0] = Math.max(0, spawnX[0] - scene.getWidth() * 0.40);
-                    world.setTranslateX(-camX[0]); parallax.setTranslateX(-camX[0] * 0.5);
-                    hud.setLives(lives[0]);
-                }
-
-                hud.setRings(player.getRings());
-// --- Camera follow & clamp ---
-                double rawTarget = player.getSprite().getTranslateX() - scene.getWidth() * 0.40;
-                double maxCam = Math.max(0, level.getFinishX() - scene.getWidth() * 0.90);
-                double targetCamX = Math.max(0, Math.min(rawTarget, maxCam));
-                camX[0] += (targetCamX - camX[0]) * CAMERA_LERP;
-                world.setTranslateX(-camX[0]);
-                parallax.setTranslateX(-camX[0] * 0.5);
-
-                
-// --- FALL CHECK: perde 1 vita e respawn, a 0 vite torna al menu ---
-                if (player.getSprite().getTranslateY() > level.getGroundY() + 300) {
-                    lives[0]--;
-                    if (lives[0] <= 0) {
-                        stop();
-                        showMenu();
-                        return;
-                    }
-                    // Respawn
-                    player.getSprite().setTranslateX(spawnX[0]);
-                    player.getSprite().setTranslateY(spawnY[0]);
-                    player.setVelocityX(0);
-                    player.setVelocityY(0);
-                    cm.update(1.0 / 60.0);
-                    hud.setRings(player.getRings());
-camX[0] = Math.max(0, spawnX[0] - scene.getWidth() * 0.40);
-                    world.setTranslateX(-camX[0]);
-                    parallax.setTranslateX(-camX[0] * 0.5);
-                    hud.setLives(lives[0]);
-                }
-
-                // --- CHECKPOINT a metà livello (disattivato nel Level 3) ---
-                if (index != 3 && (player.getSprite().getTranslateX() >= level.getFinishX() * 0.5)) {
-                    spawnX[0] = level.getFinishX() * 0.5;
-                    spawnY[0] = level.getGroundY() - player.getSprite().getImage().getHeight();
-                    hud.setMessage("Checkpoint!");
-                }
-
-                // HUD boss (solo Level3)
-                if (index == 3) {
-                    Level3 l3 = (Level3) level;
-                    if (l3.getBoss() != null && !l3.getBoss().isDefeated()) {
-                        hud.setBossStats(l3.getBoss().getHp(), l3.getBoss().toString());
-                    } else {
-                        hud.setMessage("BOSS DEFEATED!");
-                    }
-                }
-
-                Bounds pb = player.getBounds();
-                if (pb.intersects(gate.getBounds()) &&
-                   (index != 3 || ((Level3) level).getBoss().isDefeated())) {
-                    setLevelCompleted(index);
-                    stop();
-                    showMenu();
-                }
-            }
-        };
-        timer.start();
+    @Override
+    public void onLevelCompleted(int index) {
+        setLevelCompleted(index);
+        showMenu();
+    }
+
+    @Override
+    public void onQuitToMenu() {
+        waitingFor = 0;
+        if (session != null) session.suspend();
+        showMenu();
     }
 
     private void setLevelCompleted(int levelIndex) {
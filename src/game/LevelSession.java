@@ -0,0 +1,390 @@
+package game;
+
+import javafx.stage.Stage;
+import javafx.scene.Scene;
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import game.ui.HUD;
+import game.ui.ProfilerOverlay;
+import game.audio.SoundManager;
+import game.entities.Player;
+import game.world.CollisionManager;
+import game.world.Parallax;
+import game.util.FramePacer;
+import game.util.FrameProfiler;
+import game.util.Quality;
+import game.util.QualityGovernor;
+import game.jfr.FrameEvent;
+import game.render.CanvasRenderer;
+import game.render.RenderLayer;
+import game.render.TextureAtlas;
+import game.render.ViewportCuller;
+import game.sim.EngineStats;
+import game.sim.RenderSnapshot;
+import game.sim.SimulationLoop;
+import game.world.elements.FinishGate;
+import game.levels.*;
+
+/**
+ * Un livello costruito una volta sola: scena, gruppi, player, CollisionManager, regole,
+ * simulazione e frame pacer.
+ * - start() lo mostra e lo fa partire; suspend() lo ferma (ritorno al menu) senza buttarlo.
+ * - restart() lo riporta allo stato iniziale sul posto (player, nemici, anelli, boss,
+ *   piattaforme, vite) invece di ricostruire Scene e nodi: il retry costa un frame.
+ * - Game over: il livello resta a schermo fermo, INVIO riprova, ESC torna al menu.
+ * - La parte pesante (grafo del mondo, immagini, dati di collisione) è un {@link Prepared}
+ *   che si può costruire su qualunque thread: i nodi non sono ancora in una scena mostrata.
+ *   GameApp lo prepara in background per il livello successivo; qui si aggiunge solo la
+ *   parte legata al thread FX (Scene, HUD, overlay, pacer).
+ */
+final class LevelSession {
+
+    interface Listener {
+        void onLevelCompleted(int index);
+        void onQuitToMenu();
+    }
+
+    // -Dgame.allocBudget=<byte>: conta gli step in cui cm.update() alloca oltre il budget (F3, JFR)
+    private static final long ALLOC_BUDGET = Long.getLong("game.allocBudget", -1L);
+    // -Dgame.parallel=true: nemici e proiettili aggiornati in fork-join (livelli affollati)
+    private static final boolean PARALLEL_UPDATE = Boolean.getBoolean("game.parallel");
+    // -Dgame.simThread=false: simulazione sul thread FX (stesso codice, senza thread dedicato)
+    private static final boolean SIM_THREAD = Boolean.parseBoolean(System.getProperty("game.simThread", "true"));
+    // campioni per fase nel ring buffer del profiler (overlay F3, dump CSV F4)
+    private static final int PROFILER_SAMPLES = Integer.getInteger("game.profilerSamples", 600);
+    // -Dgame.adaptiveQuality=false: qualità fissa (-Dgame.quality=0..2), niente governor
+    private static final boolean ADAPTIVE_QUALITY = Boolean.parseBoolean(System.getProperty("game.adaptiveQuality", "true"));
+    // -Dgame.fps=30|60|120|0 (0 = senza limite); -Dgame.backgroundFps: finestra senza focus o ridotta a icona
+    private static final int TARGET_FPS = Integer.getInteger("game.fps", 60);
+    private static final int BACKGROUND_FPS = Integer.getInteger("game.backgroundFps", 10);
+    private static final double FRAME_BUDGET_NANOS = 1_000_000_000.0 / (TARGET_FPS > 0 ? TARGET_FPS : 60);
+    // -Dgame.bake=false: piattaforme, ostacoli, loop e gate restano nodi (default: cotti in tile 512x512)
+    private static final boolean BAKE_STATIC = Boolean.parseBoolean(System.getProperty("game.bake", "true"));
+    // -Dgame.renderer=canvas: parallax e mondo disegnati in un unico Canvas (default: nodi nella scena)
+    private static final boolean CANVAS_RENDERER = "canvas".equalsIgnoreCase(System.getProperty("game.renderer", "nodes"));
+
+    // Camera follow (X) con smoothing; parallax si muove più lento
+    private static final double CAMERA_LERP = 0.12;
+
+    private final int index;
+    private final Stage stage;
+    private final Listener listener;
+
+    /** Mondo di un livello costruito e pronto da mostrare (qualunque thread, una sola volta). */
+    static final class Prepared {
+        final int index;
+        final Group parallax = new Group();
+        final Parallax layers = new Parallax(parallax);
+        final Group world = new Group();
+        final Player player;
+        final CollisionManager cm;
+        final Level level;
+        final LevelRules rules;
+        final ViewportCuller culler;
+
+        Prepared(int index) {
+            this.index = index;
+            player = new Player(world, 60, 600);
+            cm = new CollisionManager(world, player);
+            cm.setParallelUpdate(PARALLEL_UPDATE);
+            player.setDamageContext(cm, world);
+
+            level = Level.create(index);
+
+            // FIX: costruisce il livello dentro "world" (non "root")
+            Level.build(level, index, layers, world, player, cm);
+
+            // FIX: anche il gate sta in "world" per avere bounds coerenti con il player
+            FinishGate gate = new FinishGate(world, level.getFinishX(), level.getGroundY());
+            RenderLayer.tagBaked(gate.getSprite(), RenderLayer.DECOR);
+            player.getSprite().toFront();
+
+            // nodi statici raggruppati in chunk: fuori dalla camera vengono staccati
+            culler = new ViewportCuller(world);
+            culler.build();
+
+            // Regole di livello (vite, respawn, checkpoint, gate): girano sul thread di simulazione
+            rules = new LevelRules(index, level, player, gate);
+        }
+    }
+
+    private final Group parallax;
+    private final Parallax layers;
+    private final Group world;
+    private final Group ui = new Group();
+    private final Scene scene;
+    private final Player player;
+    private final HUD hud;
+    private final CollisionManager cm;
+    private final Level level;
+    private final LevelRules rules;
+    private final SimulationLoop sim;
+    private final FrameProfiler profiler;
+    private final ProfilerOverlay overlay;
+    private final QualityGovernor governor;
+    private final FramePacer pacer;
+    private final CanvasRenderer renderer; // null: percorso a nodi
+    private final ViewportCuller culler;
+
+    private double camX = 0;
+    private long lastFrame = -1;
+    private long pulseStart = 0, lastPulse = 0;
+    private boolean over = false; // game over a schermo, in attesa di INVIO/ESC
+
+    LevelSession(int index, Stage stage, Listener listener) {
+        this(new Prepared(index), stage, listener);
+    }
+
+    /** Thread FX: monta la scena attorno a un mondo già costruito. */
+    LevelSession(Prepared p, Stage stage, Listener listener) {
+        this.index = p.index;
+        this.stage = stage;
+        this.listener = listener;
+        this.parallax = p.parallax;
+        this.layers = p.layers;
+        this.world = p.world;
+        this.culler = p.culler;
+        this.player = p.player;
+        this.cm = p.cm;
+        this.level = p.level;
+        this.rules = p.rules;
+
+        // snapshot: solo sul thread FX, quindi qui e non in Prepared. I conteggi (0 se saltato)
+        // vanno nel profiler (F3) e in EngineStats
+        if (BAKE_STATIC) {
+            try {
+                culler.bake();
+            } catch (RuntimeException e) {
+                // snapshot fallito: bake() ha già rimesso i nodi nei chunk, i conteggi restano a 0
+                System.err.println("[Bake] skipped: " + e);
+            }
+        }
+
+        Group root;
+        if (CANVAS_RENDERER) {
+            // i gruppi restano fuori dalla scena: li legge solo il renderer
+            renderer = new CanvasRenderer(parallax, world);
+            root = new Group(renderer.getCanvas(), ui);
+        } else {
+            renderer = null;
+            root = new Group(parallax, world, ui);
+        }
+        scene = new Scene(root, 1280, 720);
+        scene.setFill(Color.web("#4A90D9")); // visibile solo a qualità LOW (parallax nascosto)
+        if (renderer != null) renderer.bindTo(scene); // segue il ridimensionamento della finestra
+        layers.setViewWidth(scene.getWidth());
+        scene.widthProperty().addListener((obs, old, w) -> layers.setViewWidth(w.doubleValue())); // niente buchi a destra
+        hud = new HUD(ui);
+
+        sim = new SimulationLoop(player, cm, rules);
+        sim.setAllocBudget(ALLOC_BUDGET);
+
+        // Profiler per fase: tick/update/capture dalla simulazione, il resto nel frame
+        profiler = new FrameProfiler(PROFILER_SAMPLES);
+        overlay = new ProfilerOverlay(ui, profiler, scene.getWidth() - 260, 8);
+        sim.setProfiler(profiler);
+        profiler.setCount(FrameProfiler.BAKED, culler.getBakedNodes());
+        profiler.setCount(FrameProfiler.TILES, culler.getBakedTiles());
+        scene.addPreLayoutPulseListener(() -> pulseStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            lastPulse = System.nanoTime() - pulseStart;
+            profiler.record(FrameProfiler.PULSE, lastPulse);
+        });
+
+        // Qualità: adattata ai tempi di frame (riapplicata a ogni start())
+        governor = ADAPTIVE_QUALITY ? new QualityGovernor(FRAME_BUDGET_NANOS) : null;
+
+        // Input: accodato, lo legge la simulazione all'inizio dello step
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3) { overlay.toggle(); return; }
+            if (e.getCode() == KeyCode.F4) { dumpProfile(profiler); return; }
+            if (over) {
+                if (e.getCode() == KeyCode.ENTER) restart();
+                else if (e.getCode() == KeyCode.ESCAPE) listener.onQuitToMenu();
+                return;
+            }
+            sim.postKey(e.getCode(), true);
+        });
+        scene.addEventFilter(KeyEvent.KEY_RELEASED, e -> sim.postKey(e.getCode(), false));
+
+        // Il ritmo dei frame lo decide il FramePacer (target FPS, rallentato senza focus)
+        pacer = new FramePacer(this::frame, TARGET_FPS, BACKGROUND_FPS);
+        pacer.setThrottleListener(sim::setPaused); // senza focus o ridotto a icona il gioco si ferma
+    }
+
+    int getIndex() { return index; }
+
+    /** Mostra il livello e fa partire simulazione e frame (dallo stato corrente). */
+    void start() {
+        stage.setScene(scene);
+        SoundManager.playMusic(level.getMusic());
+        applyQuality();
+        rules.placeAtSpawn();
+        over = false;
+        lastFrame = -1;
+
+        // Finestra di attività iniziale e camera sullo spawn
+        camX = 0;
+        sim.setActivityWindow(camX - Constants.ACTIVITY_MARGIN, camX + scene.getWidth() + Constants.ACTIVITY_MARGIN);
+
+        // Snap collisioni (primo step sincrono, prima di avviare il thread)
+        sim.prime();
+        RenderSnapshot first = sim.acquire();
+        cm.dispatchEvents(first.getEvents());
+        first.apply(1.0);
+        hud.setRings(first.getRings());
+        hud.setLives(first.getLives());
+        hud.setMessage("");
+        world.setTranslateX(-camX);
+        layers.scrollTo(camX);
+        cull();
+        if (renderer != null) renderer.render();
+
+        EngineStats.get().attach(sim, cm, world);
+        EngineStats.get().onBake(culler.getBakedNodes(), culler.getBakedTiles());
+        pacer.bindTo(stage);
+        sim.setPaused(pacer.isThrottled()); // il listener sente solo i cambi
+        pacer.start();
+        if (SIM_THREAD) sim.start();
+    }
+
+    /** Ferma frame e simulazione; la sessione resta pronta per restart(). */
+    void suspend() {
+        pacer.stop();
+        sim.stop();
+        EngineStats.get().detach();
+    }
+
+    /** Riavvio sul posto: stesso grafo di scena, stato di inizio livello. */
+    void restart() {
+        suspend();
+        sim.reset();
+        cm.reset();
+        player.reset();
+        rules.reset();
+        player.getSprite().toFront();
+        start();
+    }
+
+    private void frame(long now) {
+        FrameEvent frameEvent = FrameEvent.TYPE.isEnabled() ? new FrameEvent() : null;
+        if (frameEvent != null) frameEvent.begin();
+        long handleStart = System.nanoTime();
+        if (lastFrame < 0) lastFrame = now;
+        long interval = now - lastFrame;
+        double dt = interval / 1_000_000_000.0;
+        if (interval > 0) profiler.record(FrameProfiler.FRAME, interval);
+        lastFrame = now;
+        if (dt > Constants.MAX_DT) dt = Constants.MAX_DT;
+
+        EngineStats.get().onFrame(now);
+        TextureAtlas.advance(now); // frame delle GIF impacchettate nell'atlas
+        if (!SIM_THREAD && !over) sim.advance(dt);
+        RenderSnapshot s = sim.acquire();
+
+        long t0 = System.nanoTime();
+        if (s.isFresh()) {
+            cm.dispatchEvents(s.getEvents());
+            long t1 = System.nanoTime();
+            profiler.record(FrameProfiler.EVENTS, t1 - t0);
+            t0 = t1;
+            hud.setRings(s.getRings());
+            hud.setLives(s.getLives());
+            if (s.getMessage() != null) hud.setMessage(s.getMessage());
+            if (s.getBossHp() >= 0) {
+                if (!s.isBossDefeated()) hud.setBossStats(s.getBossHp(), s.getBossLabel());
+                else hud.setMessage("BOSS DEFEATED!");
+            }
+            if (s.isRespawned()) {
+                camX = Math.max(0, s.getFocusX(1.0) - scene.getWidth() * 0.40);
+            }
+            if (s.getOutcome() == RenderSnapshot.OUTCOME_LEVEL_COMPLETE) {
+                suspend();
+                listener.onLevelCompleted(index);
+                return;
+            }
+            if (s.getOutcome() == RenderSnapshot.OUTCOME_GAME_OVER && !over) {
+                // il livello resta a schermo: INVIO lo riavvia sul posto
+                sim.stop();
+                over = true;
+                hud.setMessage("GAME OVER - ENTER: retry, ESC: menu");
+            }
+            profiler.record(FrameProfiler.HUD, System.nanoTime() - t0);
+        }
+        SoundManager.flushPending();
+
+        t0 = System.nanoTime();
+        double alpha = SIM_THREAD ? s.alphaAt(t0, Constants.SIM_DT)
+                                  : sim.getAlpha();
+        s.apply(alpha);
+        profiler.setCount(FrameProfiler.SPRITES, s.size());
+        long t1 = System.nanoTime();
+        profiler.record(FrameProfiler.APPLY, t1 - t0);
+
+        // --- Camera follow & clamp ---
+        double rawTarget = s.getFocusX(alpha) - scene.getWidth() * 0.40;
+        double maxCam = Math.max(0, level.getFinishX() - scene.getWidth() * 0.90);
+        double targetCamX = Math.max(0, Math.min(rawTarget, maxCam));
+        // CAMERA_LERP è tarato per frame a 60 FPS: lo convertiamo sul dt reale
+        camX += (targetCamX - camX) * (1.0 - Math.pow(1.0 - CAMERA_LERP, dt * 60.0));
+        world.setTranslateX(-camX);
+        layers.scrollTo(camX);
+        sim.setActivityWindow(camX - Constants.ACTIVITY_MARGIN,
+                              camX + scene.getWidth() + Constants.ACTIVITY_MARGIN);
+        cull();
+        profiler.record(FrameProfiler.CAMERA, System.nanoTime() - t1);
+
+        if (renderer != null) {
+            t1 = System.nanoTime();
+            renderer.render();
+            profiler.record(FrameProfiler.RENDER, System.nanoTime() - t1);
+        }
+
+        overlay.update(now);
+
+        if (governor != null && interval > 0 && !pacer.isThrottled()
+                && governor.onFrame(interval, System.nanoTime() - handleStart + lastPulse)) {
+            applyQuality();
+        }
+
+        if (frameEvent != null) {
+            frameEvent.end();
+            if (frameEvent.shouldCommit()) {
+                frameEvent.sprites = s.size();
+                frameEvent.freshSnapshot = s.isFresh();
+                frameEvent.commit();
+            }
+        }
+    }
+
+    /** Stacca/riattacca i chunk statici fuori dalla camera. */
+    private void cull() {
+        culler.update(camX, scene.getWidth());
+        profiler.setCount(FrameProfiler.VISIBLE, culler.getVisibleNodes());
+        profiler.setCount(FrameProfiler.CULLED, culler.getCulledNodes());
+        EngineStats.get().onCull(culler.getVisibleNodes(), culler.getCulledNodes());
+    }
+
+    /** Porta la qualità corrente su nodi esistenti e parallax (thread FX). I chunk staccati la prendono al riaggancio. */
+    private void applyQuality() {
+        Quality.applyTo(world);
+        Quality.applyTo(parallax);
+        parallax.setVisible(Quality.parallax());
+        layers.setCached(Quality.parallaxCached()); // i layer traslano: cache per layer, non sulla radice
+    }
+
+    private static void dumpProfile(FrameProfiler profiler) {
+        Path out = Paths.get("profile-" + System.currentTimeMillis() + ".csv");
+        try {
+            profiler.writeCsv(out);
+            System.out.println("[Profiler] " + out.toAbsolutePath());
+        } catch (Exception ex) {
+            System.err.println("[Profiler] CSV non scritto: " + ex);
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package game.audio;
 
+import javafx.application.Platform;
 import javafx.scene.media.AudioClip;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import static game.util.ResourceUtil.clip;
+import static game.util.ResourceUtil.isHeadless;
+import game.jfr.AudioLoadEvent;
 
-/** Simple audio manager with caching and music handoff. */
+/**
+ * Simple audio manager with caching and music handoff.
+ * Sound effects requested off the FX thread (simulation thread) are queued and
+ * played by flushPending() on the next frame.
+ * In headless mode (ResourceUtil.isHeadless()) every call is a no-op: no clips are
+ * loaded and nothing is queued.
+ */
 public final class SoundManager {
 
     public enum Kind { MUSIC, SFX }
 
     private static final Map<String, AudioClip> CACHE = new HashMap<>();
+    private static final ConcurrentLinkedQueue<String> PENDING = new ConcurrentLinkedQueue<>();
     private static AudioClip currentMusic = null;
     private static String currentMusicKey = null;
 
@@ -21,19 +32,37 @@ public final class SoundManager {
     private SoundManager() {}
 
     private static AudioClip get(String classpath) {
-        return CACHE.computeIfAbsent(classpath, cp -> {
+        // fast path senza lambda: gli effetti vengono chiesti durante le collisioni
+        AudioClip cached = CACHE.get(classpath);
+        if (cached != null) return cached;
+        return CACHE.computeIfAbsent(classpath, SoundManager::load);
+    }
+
+    /** Cache miss: crea il clip (evento JFR game.AudioLoad). */
+    private static AudioClip load(String cp) {
+        AudioLoadEvent ev = AudioLoadEvent.TYPE.isEnabled() ? new AudioLoadEvent() : null;
+        if (ev != null) ev.begin();
+        AudioClip ac;
+        try {
+            ac = clip(cp);
+        } catch (Exception ex1) {
             try {
-                return clip(cp);
-            } catch (Exception ex1) {
-                try {
-                    // Fallback: direct URL/string such as file:...
-                    return new AudioClip(cp);
-                } catch (Exception ex2) {
-                    System.err.println("[SoundManager] Failed to load: " + cp + " -> " + ex1 + " / " + ex2);
-                    return null;
-                }
+                // Fallback: direct URL/string such as file:...
+                ac = new AudioClip(cp);
+            } catch (Exception ex2) {
+                System.err.println("[SoundManager] Failed to load: " + cp + " -> " + ex1 + " / " + ex2);
+                ac = null;
             }
-        });
+        }
+        if (ev != null) {
+            ev.end();
+            if (ev.shouldCommit()) {
+                ev.source = cp;
+                ev.loaded = (ac != null);
+                ev.commit();
+            }
+        }
+        return ac;
     }
 
     public static void setMaster(double v) { master = clamp01(v); applyVolumes(); }
@@ -46,9 +75,12 @@ public final class SoundManager {
         if (currentMusic != null) currentMusic.setVolume(master * music);
     }
 
+    /** Number of clips held by the cache. */
+    public static int getCacheSize() { return CACHE.size(); }
+
     /** Plays looping background music for a given classpath resource. */
     public static void playMusic(String classpath) {
-        if (classpath == null || classpath.isEmpty()) return;
+        if (classpath == null || classpath.isEmpty() || isHeadless()) return;
         if (classpath.equals(currentMusicKey) && currentMusic != null) {
             // already playing this track
             return;
@@ -74,8 +106,13 @@ public final class SoundManager {
         }
     }
 
-    /** Plays a one-shot sound effect. */
+    /** Plays a one-shot sound effect (queued if called off the FX thread). */
     public static void playSfx(String classpath) {
+        if (isHeadless()) return;
+        if (!Platform.isFxApplicationThread()) {
+            PENDING.offer(classpath);
+            return;
+        }
         AudioClip ac = get(classpath);
         if (ac != null) {
             ac.setCycleCount(1);
@@ -84,6 +121,12 @@ public final class SoundManager {
         }
     }
 
+    /** Plays the effects queued from other threads; call once per frame on the FX thread. */
+    public static void flushPending() {
+        String cp;
+        while ((cp = PENDING.poll()) != null) playSfx(cp);
+    }
+
     /** Free audio resources. */
     public static void dispose() {
         stopMusic();
@@ -91,5 +134,6 @@ public final class SoundManager {
             try { ac.stop(); } catch (Throwable ignored) {}
         }
         CACHE.clear();
+        PENDING.clear();
     }
 }
@@ -1,13 +1,15 @@
 package game.entities;
 
-import javafx.geometry.Bounds;
 import javafx.scene.Group;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
+import game.world.CollisionEvents;
 import game.world.CollisionManager;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 import game.entities.Projectile;
 import game.entities.Player;
 
@@ -76,21 +78,27 @@ public class Boss extends EnemyBase {
         this.cm = cm;
         this.waypoints = waypoints;
 
-        // Sprite di fallback 48x48 (bordo giallo, riempimento rosso scuro)
-        WritableImage img = new WritableImage(48, 48);
-        PixelWriter pw = img.getPixelWriter();
-        for (int y = 0; y < 48; y++) {
-            for (int x = 0; x < 48; x++) {
-                boolean border = (x < 2 || y < 2 || x >= 46 || y >= 46);
-                pw.setColor(x, y, border ? Color.YELLOW : Color.DARKRED);
+        // Sprite di fallback 48x48 (bordo giallo, riempimento rosso scuro); headless: nessuna immagine
+        WritableImage img = null;
+        if (!game.util.ResourceUtil.isHeadless()) {
+            img = new WritableImage(48, 48);
+            PixelWriter pw = img.getPixelWriter();
+            for (int y = 0; y < 48; y++) {
+                for (int x = 0; x < 48; x++) {
+                    boolean border = (x < 2 || y < 2 || x >= 46 || y >= 46);
+                    pw.setColor(x, y, border ? Color.YELLOW : Color.DARKRED);
+                }
             }
         }
         this.sprite = new ImageView(img);
         this.sprite.setFitWidth(48);
         this.sprite.setFitHeight(48);
-        this.sprite.setTranslateX(startX);
-        this.sprite.setTranslateY(startY - 48);
+        this.body = new Hitbox(startX, startY - 48, 48, 48);
+        this.body.setFilter(CollisionLayer.ENEMY, CollisionLayer.PLAYER);
+        this.body.applyTo(this.sprite);
         this.baseX = startX;
+        this.spawnX = startX;
+        this.spawnY = startY - 48;
 
         root.getChildren().add(this.sprite);
     }
@@ -109,9 +117,28 @@ public class Boss extends EnemyBase {
         this.burstSize = Math.max(1, burst);
     }
 
+    /** Stato di inizio livello: HP pieni, PATROL, timer e onda da capo (la configurazione resta). */
+    @Override
+    public void reset() {
+        super.reset();
+        hp = game.Constants.BOSS_LIVES;
+        defeated = false;
+        invulnTimer = 0.0;
+        state = State.PATROL;
+        stateTime = 0.0;
+        hoverPhase = 0;
+        wpIndex = 0;
+        waveTime = 0;
+        shootTimer = 0.0;
+        burstLeft = 0;
+        burstTimer = 0.0;
+        shootRight = true;
+    }
+
     // --- Update --------------------------------------------------------------
     @Override
     public void update(double dt) {
+        body.savePrevious();
         if (invulnTimer > 0) invulnTimer = Math.max(0, invulnTimer - dt);
         if (!alive) return;
 
@@ -132,9 +159,8 @@ public class Boss extends EnemyBase {
                 break;
 
             case DASH:
-                double x = sprite.getTranslateX();
-                double dash = Math.sin(stateTime * Math.PI * 2.0) * 2.2;
-                sprite.setTranslateX(x + dash);
+                double dash = Math.sin(stateTime * Math.PI * 2.0) * 132.0; // px/s (era 2.2 px per frame)
+                body.translate(dash * dt, 0);
                 hover(dt);
                 if (stateTime > 1.2) switchState(State.PATROL);
                 break;
@@ -149,8 +175,7 @@ public class Boss extends EnemyBase {
             waveTime += dt;
             double x = waveCx + waveAmpX * Math.sin(waveTime * waveOmegaX);
             double y = waveCy + waveAmpY * Math.sin(waveTime * waveOmegaY + wavePhase);
-            sprite.setTranslateX(x);
-            sprite.setTranslateY(y);
+            body.setPosition(x, y);
             return;
         }
         if (waypoints != null && waypoints.length > 0) {
@@ -159,21 +184,21 @@ public class Boss extends EnemyBase {
         }
         double t = stateTime;
         double offset = Math.sin(t * 1.2) * range * 0.5;
-        sprite.setTranslateX(baseX + offset);
+        body.setX(baseX + offset);
         hover(dt);
     }
 
     private void hover(double dt) {
         hoverPhase += dt * hoverSpeed;
         double hover = Math.sin(hoverPhase) * hoverAmp;
-        sprite.setTranslateY(sprite.getTranslateY() + hover * dt);
+        body.translate(0, hover * dt);
     }
 
     private void moveTowardWaypoint(double dt) {
         double tx = waypoints[wpIndex][0];
         double ty = waypoints[wpIndex][1];
-        double cx = sprite.getTranslateX();
-        double cy = sprite.getTranslateY();
+        double cx = body.getX();
+        double cy = body.getY();
 
         double dx = tx - cx;
         double dy = ty - cy;
@@ -185,8 +210,7 @@ public class Boss extends EnemyBase {
         double speed = 100; // px/s
         double vx = (dx / (dist + 1e-6)) * speed * dt;
         double vy = (dy / (dist + 1e-6)) * speed * dt;
-        sprite.setTranslateX(cx + vx);
-        sprite.setTranslateY(cy + vy);
+        body.setPosition(cx + vx, cy + vy);
     }
 
     // --- Shooting ------------------------------------------------------------
@@ -214,10 +238,8 @@ public class Boss extends EnemyBase {
     }
 
     private void fireProjectile() {
-        double cx = sprite.getBoundsInParent().getMinX()
-                  + sprite.getBoundsInParent().getWidth() * 0.5;
-        double cy = sprite.getBoundsInParent().getMinY()
-                  + sprite.getBoundsInParent().getHeight() * 0.5;
+        double cx = body.getCenterX();
+        double cy = body.getCenterY();
 
         Player pl = cm.getPlayer();
         double tx = pl.getCenterX();
@@ -250,7 +272,7 @@ public class Boss extends EnemyBase {
                     Class<?> t = types[i];
 
                     if (Group.class.isAssignableFrom(t)) {
-                        args[i] = root;
+                        args[i] = null; // lo aggancia cm.addProjectile (update() può girare in parallelo)
                     } else if (CollisionManager.class.isAssignableFrom(t)) {
                         args[i] = cm;
                     } else if (t == double.class || t == Double.TYPE) {
@@ -304,12 +326,12 @@ public class Boss extends EnemyBase {
 
     // --- Collisione con il player -------------------------------------------
     @Override
-    public void onPlayerCollision(Player player) {
+    public void onPlayerCollision(Player player, CollisionEvents events) {
         if (!alive || isDefeated()) return;
 
-        // Stomp dall'alto oppure impatto in roll/spindash
+        // Stomp dall'alto oppure impatto in roll/spindash (onHit() parte dopo la fisica)
         if (isStompFromAbove(player) || player.isRolling()) {
-            onHit();
+            events.push(CollisionEvents.BOSS_HIT, this);
 
             if (player.isRolling()) {
                 // rimbalzo orizzontale + piccolo bump verso l'alto
@@ -326,25 +348,28 @@ public class Boss extends EnemyBase {
             }
         } else {
             // non stomp e non roll: il boss colpisce il player
-            try { player.applyKnockback((getBounds().getMinX()+getBounds().getMaxX())*0.5); } catch (Throwable __) {}
-            player.takeDamage();
+            events.push(CollisionEvents.DAMAGE, this, (getBounds().getMinX()+getBounds().getMaxX())*0.5);
         }
     }
 
     public void hit() { onHit(); }
 
     private boolean isStompFromAbove(Player player) {
-        Bounds pb = player.getBounds();
-        Bounds bb = sprite.getBoundsInParent();
+        Hitbox pb = player.getBounds();
+        Hitbox bb = body;
         boolean above = pb.getMaxY() <= bb.getMinY() + 6;
         boolean falling = (player.getVelocityY() > 0);
         return above && falling;
     }
 
-    // Gestisce un colpo al boss (stomp o proiettile)
-    public void onHit() {
+    /**
+     * Gestisce un colpo al boss (stomp o proiettile). Solo stato: gira sul thread di
+     * simulazione (lo sprite del boss sconfitto viene tolto dallo sweep dei nemici).
+     * Ritorna true se il colpo è andato a segno (fuori dagli i-frame).
+     */
+    public boolean onHit() {
         // invulnerabilità breve per evitare hit multipli nello stesso frame
-        if (invulnTimer > 0) return;
+        if (invulnTimer > 0) return false;
         invulnTimer = 0.6; // 600 ms di i-frame
 
         // decrementa HP
@@ -352,7 +377,18 @@ public class Boss extends EnemyBase {
 
         try { game.audio.SoundManager.playSfx("/assets/sfx/hit.wav"); } catch (Throwable ignored) {}
 
-        // feedback visivo semplice: leggero flash rosso se possibile
+        if (hp <= 0) {
+            defeated = true;
+            alive = false;
+            // eventuale suono di sconfitta
+            try { game.audio.SoundManager.playSfx("/assets/sfx/boss_defeat.wav"); } catch (Throwable ignored) {}
+        }
+        return true;
+    }
+
+    /** Feedback visivo del colpo (thread FX): leggero flash rosso, solo se gli effetti sono attivi. */
+    public void showHitFlash() {
+        if (!game.util.Quality.effects()) return;
         try {
             javafx.scene.effect.ColorAdjust adj = new javafx.scene.effect.ColorAdjust();
             adj.setHue(-0.5);
@@ -363,18 +399,5 @@ public class Boss extends EnemyBase {
             pt.setOnFinished(e -> sprite.setEffect(null));
             pt.play();
         } catch (Throwable ignored) {}
-
-        if (hp <= 0) {
-            defeated = true;
-            alive = false;
-            // rimuovi dallo stage
-            try {
-                if (sprite != null && sprite.getParent() instanceof Group) {
-                    ((Group) sprite.getParent()).getChildren().remove(sprite);
-                }
-            } catch (Throwable ignored) {}
-            // eventuale suono di sconfitta
-            try { game.audio.SoundManager.playSfx("/assets/sfx/boss_defeat.wav"); } catch (Throwable ignored) {}
-        }
     }
 }
@@ -3,23 +3,29 @@ package game.entities;
 import static game.util.ResourceUtil.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.Group;
-import javafx.geometry.Bounds;
+import game.world.CollisionEvents;
+import game.world.Hitbox;
 
 public abstract class EnemyBase {
     protected ImageView sprite;
+    /** Posizione autorevole per le collisioni; lo sprite la segue tramite RenderSnapshot. */
+    protected Hitbox body;
     protected boolean alive = true;
+    /** Posizione di partenza (impostata dal costruttore), ripristinata da reset(). */
+    protected double spawnX, spawnY;
 
     public abstract void update(double dt);
 
     /** Danno direzionale in stile Sonic:
      *  - se il player arriva dall'alto in caduta -> stomp (nemico muore, rimbalzo)
      *  - altrimenti -> danno al player
+     *  Gli effetti (suoni, rimozione sprite, danno) sono accodati in {@code events}.
      */
-        public void onPlayerCollision(Player player) {
+        public void onPlayerCollision(Player player, CollisionEvents events) {
         if (!alive) return;
 
-        Bounds pb = player.getBounds();
-        Bounds eb = sprite.getBoundsInParent();
+        Hitbox pb = player.getBounds();
+        Hitbox eb = body;
 
         // Crossing test: bottom del player attraversa la top-line del nemico
         final double enemyTop   = eb.getMinY();
@@ -43,26 +49,29 @@ public abstract class EnemyBase {
             // STOMP: uccide il nemico e rimbalza
             alive = false;
             player.setVelocityY(-420.0);
-            try { game.audio.SoundManager.playSfx("/assets/sfx/stomp.wav"); } catch (Throwable ignored) {}
-            if (sprite != null && sprite.getParent() instanceof Group) {
-                ((Group) sprite.getParent()).getChildren().remove(sprite);
-            }
+            events.push(CollisionEvents.STOMP, this);
         } else if (player.isRolling()) {
             // In roll/spindash: uccidi il nemico anche con impatto laterale
             alive = false;
-            try { game.audio.SoundManager.playSfx("/assets/sfx/enemy_die.wav"); } catch (Throwable ignored) {}
-            if (sprite != null && sprite.getParent() instanceof Group) {
-                ((Group) sprite.getParent()).getChildren().remove(sprite);
-            }
+            events.push(CollisionEvents.ENEMY_KILLED, this);
         } else {
             // Colpo laterale -> danno al player (gestito con invuln interna del player)
-            player.applyKnockback((getBounds().getMinX()+getBounds().getMaxX())*0.5);
-            player.takeDamage();
+            events.push(CollisionEvents.DAMAGE, this, (getBounds().getMinX()+getBounds().getMaxX())*0.5);
         }
     }
 
 
+    /**
+     * Torna allo stato di inizio livello (riavvio sul posto). Solo stato: lo sprite viene
+     * riagganciato e riposizionato dal CollisionManager.
+     */
+    public void reset() {
+        alive = true;
+        body.setPosition(spawnX, spawnY);
+        body.savePrevious();
+    }
+
     public boolean isAlive() { return alive; }
     public ImageView getSprite() { return sprite; }
-    public Bounds getBounds() { return sprite.getBoundsInParent(); }
+    public Hitbox getBounds() { return body; }
 }
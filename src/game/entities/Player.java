@@ -1,14 +1,19 @@
 package game.entities;
 
-import javafx.animation.FadeTransition;
-import javafx.geometry.Bounds;
+import java.util.Random;
+
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
-import javafx.util.Duration;
 import game.audio.SoundManager;
 import game.entities.Shield;
+import game.world.CollisionLayer;
+import game.world.CollisionEvents;
+import game.world.Hitbox;
+import game.sim.RenderSnapshot;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.render.TextureAtlas.Region;
 
 /**
  * Player con movimento fluido in stile Sonic:
@@ -16,13 +21,16 @@ import game.entities.Shield;
  * - coyote time + jump buffer (frame-based)
  * - animazioni: idle, run, jump, crouch, spindash (carica)
  * - spindash: tieni premuto S (crouch) e premi e tieni SPAZIO per caricare; al rilascio di SPAZIO parte lo spindash
+ * - la posizione vive nella Hitbox; tick() non tocca il grafo di scena (gira sul thread di simulazione):
+ *   animazione, verso, rotazione e lampeggio vengono copiati nello snapshot da capture()
  */
 public class Player {
 
-    // ===== Rendering =====
+    // ===== Rendering / Collisione =====
     private final ImageView sprite;
-    private Image idleGif;
-    private Image walkGif, runGif, skidGif, jumpUpGif, crouchGif, spinChargeGif;
+    private final Hitbox body;
+    private Region idleGif;
+    private Region walkGif, runGif, skidGif, jumpUpGif, crouchGif, spinChargeGif;
 
     // ===== Damage / Rings / Context =====
     private game.world.CollisionManager damageCM;
@@ -32,6 +40,7 @@ public class Player {
     private static final int MAX_RING_SCATTER = 20;
     private static final double RING_LOSS_IFRAMES = 1.5;
     private double invulnTimer = 0.0;
+    private Random random = new Random(); // scatter degli anelli; HeadlessLevel lo rende ripetibile
 
     
     // ===== Shield =====
@@ -42,16 +51,18 @@ public class Player {
     public Shield.Type getShieldType() { return shield != null ? shield.getType() : null; }
     public boolean hasShield() { return shield != null; }
     public void equipShield(Shield.Type type) {
-        Group root = (this.damageWorld != null ? this.damageWorld : (this.sprite != null ? (Group)this.sprite.getParent() : null));
-        if (shield != null) { shield.destroy(); shield = null; }
-        if (root != null) {
-            shield = new Shield(root, type);
-            airAbilityUsed = false;
-            bubbleBouncing = false;
-        }
+        removeShield();
+        shield = new Shield(damageCM != null ? null : damageWorld, type);
+        game.render.RenderLayer.tag(shield.getSprite(), game.render.RenderLayer.EFFECT);
+        if (damageCM != null) damageCM.emit(CollisionEvents.ATTACH, shield.getSprite());
+        airAbilityUsed = false;
+        bubbleBouncing = false;
     }
     public void removeShield() {
-        if (shield != null) { shield.destroy(); shield = null; }
+        if (shield == null) return;
+        if (damageCM != null) damageCM.emit(CollisionEvents.DESPAWN, shield.getSprite());
+        else shield.destroy();
+        shield = null;
     }
 
     // ===== Knockback / Stun =====
@@ -90,6 +101,11 @@ public class Player {
     private boolean onGround = true;
     private int facing = 1;
 
+    // ===== Presentazione (scritta da tick, letta da capture) =====
+    private Region animImage; // regione dell'atlas (o GIF singola) da mostrare
+    private double spriteRotate = 0.0;
+    private double flashTime = 0.0, flashDuration = 0.0;
+
     // ===== Roll / Spindash =====
     private boolean rolling = false;
     private boolean chargingSpin = false;
@@ -115,19 +131,16 @@ public class Player {
     private static final double RUN_MIN_SPEED  = 180.0;
     private static final double SKID_SPEED_MIN = 110.0;
     private static final double SKID_FACTOR    = 0.30;
-    private static final int    SKID_MIN_FRAMES = 16;
+    private static final double SKID_MIN_TIME = 16.0 / 60.0;   // s (erano 16 frame a 60 FPS)
 
-    // QoL jump (frame-based @60 FPS)
+    // QoL jump (in secondi: stessa durata a qualunque frequenza di simulazione)
     private static final double BRAKE_DECEL      = 1100.0;
     private static final double MIN_SPEED_EPS    = 5.0;
-    private static final int    COYOTE_FRAMES    = 6;
-    private static final int    JUMP_BUFFER_FRAMES = 7;
-    private int coyoteCounter = 0;
-    private int skidTimer = 0;
-    private int jumpBuffer = -1;
-
-    // dt fisso ~1/60 per tick()
-    private static final double DT = 1.0 / 60.0;
+    private static final double COYOTE_TIME      = 6.0 / 60.0;
+    private static final double JUMP_BUFFER_TIME = 7.0 / 60.0;
+    private double coyoteCounter = 0.0;
+    private double skidTimer = 0.0;
+    private double jumpBuffer = -1.0;
 
     // Dimensione uniforme di rendering
     private static final double FRAME_W = 32;
@@ -135,50 +148,72 @@ public class Player {
 
     public Player(Group root, double startX, double startY) {
         // Caricamento asset (best-effort)
-        walkGif       = firstImage(
-            "file:src/game/assets/images/entities/player/sonicwalk.gif"
-        );
-        idleGif       = firstImage(
-            "file:src/game/assets/images/entities/player/standsonic.png"
-        );
-        runGif        = firstImage(
-            "file:src/game/assets/images/entities/player/Sonic-run.gif"
-        );
-        skidGif       = firstImage(
-            "file:src/game/assets/images/entities/player/Sonic_screech2.gif"
-        );
-        jumpUpGif     = firstImage(
-            "file:src/game/assets/images/entities/player/jumpordashsonic.gif"
-        );
-        crouchGif     = firstImage(
-            "file:src/game/assets/images/entities/player/Sonic_crouch2.gif"
-        );
-        spinChargeGif = firstImage(
-            "file:src/game/assets/images/entities/player/chargedashsonic.gif"
-        );
-
-        Image initial = (idleGif != null ? idleGif
-                        : (runGif != null ? runGif
-                        : new Image("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mP8/x8AAusB9lZ7p1EAAAAASUVORK5CYII=")));
-
-        sprite = new ImageView(initial);
+        walkGif       = firstRegion("entities/player/sonicwalk.gif");
+        idleGif       = firstRegion("entities/player/standsonic.png");
+        runGif        = firstRegion("entities/player/Sonic-run.gif");
+        skidGif       = firstRegion("entities/player/Sonic_screech2.gif");
+        jumpUpGif     = firstRegion("entities/player/jumpordashsonic.gif");
+        crouchGif     = firstRegion("entities/player/Sonic_crouch2.gif");
+        spinChargeGif = firstRegion("entities/player/chargedashsonic.gif");
+
+        // nessun asset (o headless): sprite vuoto, come il vecchio pixel trasparente
+        Region initial = (idleGif != null ? idleGif : runGif);
+
+        animImage = initial;
+        sprite = new AtlasSprite(initial);
         sprite.setFitWidth(FRAME_W);
         sprite.setFitHeight(FRAME_H);
         sprite.setPreserveRatio(false);
-        sprite.setSmooth(true);
-        sprite.setTranslateX(startX);
-        sprite.setTranslateY(startY);
+        sprite.setSmooth(game.util.Quality.smoothing());
+        body = new Hitbox(startX, startY, FRAME_W, FRAME_H);
+        body.setFilter(CollisionLayer.PLAYER, CollisionLayer.ALL & ~CollisionLayer.PLAYER);
+        body.applyTo(sprite);
+        game.render.RenderLayer.tag(sprite, game.render.RenderLayer.PLAYER);
         root.getChildren().add(sprite);
         sprite.setVisible(true);
         sprite.toFront();
     }
 
+    /**
+     * Stato di inizio livello (riavvio sul posto): niente anelli né scudo, fermo, input
+     * rilasciati, timer azzerati. La posizione la decide LevelRules.placeAtSpawn().
+     * Thread FX con la simulazione ferma: lo scudo viene tolto direttamente dalla scena.
+     */
+    public void reset() {
+        if (shield != null) { shield.destroy(); shield = null; }
+        rings = 0;
+        deathQueued = false;
+        damageQueued = false;
+        invulnTimer = 0.0;
+        knockbackTimer = 0.0;
+        airAbilityUsed = false;
+        bubbleBouncing = false;
+        left = right = up = down = false;
+        spaceDown = false;
+        jumpPressedEdge = false;
+        vx = vy = prevVy = 0.0;
+        onGround = true;
+        facing = 1;
+        rolling = false;
+        chargingSpin = false;
+        spinCharge = 0.0;
+        coyoteCounter = 0.0;
+        skidTimer = 0.0;
+        jumpBuffer = -1.0;
+        spriteRotate = 0.0;
+        flashTime = flashDuration = 0.0;
+        if (idleGif != null) animImage = idleGif;
+    }
+
     /** Chiamato da GameApp subito dopo aver creato player e cm. */
     public void setDamageContext(game.world.CollisionManager cm, Group world) {
         this.damageCM = cm;
         this.damageWorld = world;
     }
 
+    /** Sorgente casuale dello scatter degli anelli (seed fisso = partite ripetibili). */
+    public void setRandom(Random random) { this.random = random; }
+
     // ===== Input =====
     public void onKeyPressed(KeyCode code) {
         if (code == KeyCode.LEFT  || code == KeyCode.A) left  = true;
@@ -212,11 +247,11 @@ public class Player {
                 chargingSpin = true;
                 spinCharge = Math.max(spinCharge, 0.0);
             } else {
-                if (!up) { jumpPressedEdge = true; jumpBuffer = JUMP_BUFFER_FRAMES; }
+                if (!up) { jumpPressedEdge = true; jumpBuffer = JUMP_BUFFER_TIME; }
                 up = true;
             }
         } else if (code == KeyCode.UP || code == KeyCode.W) {
-            if (!up) { jumpPressedEdge = true; jumpBuffer = JUMP_BUFFER_FRAMES; }
+            if (!up) { jumpPressedEdge = true; jumpBuffer = JUMP_BUFFER_TIME; }
             up = true;
         }
     }
@@ -243,20 +278,22 @@ public class Player {
         if (code == KeyCode.UP || code == KeyCode.W) up = false;
     }
 
-    // ===== Game loop (tick a ~60 FPS) =====
-    public void tick() {
+    // ===== Game loop (step fisso, vedi Constants.SIM_DT) =====
+    public void tick(double dt) {
         // salva stato precedente per lo stomp
         prevVy = vy;
         prevCenterY = getCenterY();
+        body.savePrevious(); // inizio step: usato dai test swept del CollisionManager
 
         // invulnerabilità
-        if (knockbackTimer > 0) knockbackTimer -= 1.0/60.0;
-        if (invulnTimer > 0) invulnTimer -= 1.0/60.0;
+        if (knockbackTimer > 0) knockbackTimer -= dt;
+        if (invulnTimer > 0) invulnTimer -= dt;
+        if (flashTime > 0) flashTime -= dt;
 
         // Timers coyote/buffer
-        if (onGround) coyoteCounter = COYOTE_FRAMES;
-        else if (coyoteCounter > 0) coyoteCounter--;
-        if (jumpBuffer >= 0) jumpBuffer--;
+        if (onGround) coyoteCounter = COYOTE_TIME;
+        else if (coyoteCounter > 0) coyoteCounter -= dt;
+        if (jumpBuffer >= 0) jumpBuffer -= dt;
 
         // Shield air ability reset on landing
         if (onGround) { airAbilityUsed = false; bubbleBouncing = false; }
@@ -272,13 +309,13 @@ public class Player {
         if (inputDir != 0) {
             double desired = inputDir * maxSpeed;
             if (onGround && sign(vx) != 0.0 && sign(vx) != sign(desired)) {
-                vx = moveTowards(vx, desired, BRAKE_DECEL * DT);
+                vx = moveTowards(vx, desired, BRAKE_DECEL * dt);
             } else {
-                vx = moveTowards(vx, desired, acc * DT);
+                vx = moveTowards(vx, desired, acc * dt);
             }
         } else {
             if (!rolling) {
-                vx = moveTowards(vx, 0.0, dec * DT);
+                vx = moveTowards(vx, 0.0, dec * dt);
                 if (Math.abs(vx) < MIN_SPEED_EPS) vx = 0.0;
             }
         }
@@ -287,18 +324,18 @@ public class Player {
             if (inputDir != 0) {
                 double desired = inputDir * maxSpeed;
                 if (onGround && sign(vx) != 0.0 && sign(vx) != sign(desired)) {
-                    vx = moveTowards(vx, desired, BRAKE_DECEL * DT);
+                    vx = moveTowards(vx, desired, BRAKE_DECEL * dt);
                 } else {
-                    vx = moveTowards(vx, desired, acc * DT);
+                    vx = moveTowards(vx, desired, acc * dt);
                 }
             } else {
-                vx = moveTowards(vx, 0.0, dec * DT);
+                vx = moveTowards(vx, 0.0, dec * dt);
                 if (Math.abs(vx) < MIN_SPEED_EPS) vx = 0.0;
             }
         } else {
             // During knockback: keep current velocity; apply slight ground drag
             if (onGround) {
-                double drag = DECEL_GROUND * 0.30 * DT;
+                double drag = DECEL_GROUND * 0.30 * dt;
                 if (Math.abs(vx) <= drag) vx = 0.0; else vx -= Math.copySign(drag, vx);
             }
         }
@@ -312,18 +349,18 @@ public class Player {
         boolean reversingNow = onGround && ((left && vx > 0) || (right && vx < 0));
         double speedAbs = Math.abs(vx);
         if (reversingNow && speedAbs > Math.max(SKID_SPEED_MIN, TOP_SPEED_GROUND * SKID_FACTOR)) {
-            skidTimer = SKID_MIN_FRAMES;
+            skidTimer = SKID_MIN_TIME;
         } else if (skidTimer > 0) {
-            skidTimer--;
+            skidTimer -= dt;
         }
 
         // Spindash charge
         if (!stunned) {
             if (chargingSpin) {
                 if (down && onGround && spaceDown) {
-                    spinCharge += SPIN_CHARGE_RATE * DT;
+                    spinCharge += SPIN_CHARGE_RATE * dt;
                     if (spinCharge > SPIN_MAX) spinCharge = SPIN_MAX;
-                    vx = moveTowards(vx, 0.0, BRAKE_DECEL * DT);
+                    vx = moveTowards(vx, 0.0, BRAKE_DECEL * dt);
                 } else {
                     chargingSpin = false;
                     spinCharge = 0.0;
@@ -333,7 +370,7 @@ public class Player {
 
         // Attrito roll & stop roll
         if (onGround && rolling && inputDir == 0) {
-            double dv = ROLL_FRICTION * DT;
+            double dv = ROLL_FRICTION * dt;
             if (Math.abs(vx) <= dv) vx = 0.0; else vx -= Math.copySign(dv, vx);
         }
         if (rolling && (!onGround || Math.abs(vx) < 30.0)) {
@@ -354,31 +391,40 @@ public class Player {
 
         // Gravità
         if (!onGround) {
-            vy += GRAVITY * DT;
+            vy += GRAVITY * dt;
             if (vy > MAX_FALL_SPEED) vy = MAX_FALL_SPEED;
         }
 
         // Integrazione
-        sprite.setTranslateX(sprite.getTranslateX() + vx * DT);
-        sprite.setTranslateY(sprite.getTranslateY() + vy * DT);
+        body.translate(vx * dt, vy * dt);
 
         // Animazioni
         updateAnimation();
 
         // reset rising-edge
         jumpPressedEdge = false;
-    
-        // update shield visual
+    }
+
+    /** Copia sprite e scudo nello snapshot (thread di simulazione, a fine step). */
+    public void capture(RenderSnapshot s) {
+        int i = s.add(sprite, body);
+        s.setRegion(i, animImage);
+        s.setScaleX(i, facing);
+        s.setRotate(i, spriteRotate);
+        s.setOpacity(i, flashOpacity());
         if (shield != null) {
-            shield.follow(getCenterX(), getCenterY());
-            shield.getSprite().toFront();
+            double hw = body.getWidth() * 0.5, hh = body.getHeight() * 0.5;
+            s.add(shield.getSprite(), body.getPrevX() + hw, body.getPrevY() + hh, body.getX() + hw, body.getY() + hh);
         }
     }
 
+    /** Rotazione dello sprite in gradi (LoopDeLoop); applicata con il prossimo snapshot. */
+    public void setSpriteRotate(double deg) { spriteRotate = deg; }
+
 
     // ===== API attese dal resto del progetto =====
     public ImageView getSprite() { return sprite; }
-    public Bounds getBounds() { return sprite.getBoundsInParent(); }
+    public Hitbox getBounds() { return body; }
     public boolean isRolling() { return rolling; }
     public void setOnGround(boolean value) { this.onGround = value; }
     public double getVelocityY() { return vy; }
@@ -388,32 +434,27 @@ public class Player {
     public void setVelocityY(double value) { this.vy = value; }
     public void setVelocityX(double value) { this.vx = value; }
 
-    public double getCenterX() {
-        Bounds b = sprite.getBoundsInParent();
-        return (b.getMinX() + b.getMaxX()) * 0.5;
-    }
+    public double getX() { return body.getX(); }
+    public double getY() { return body.getY(); }
+    /** Teletrasporto (spawn/respawn): azzera anche la posizione precedente, niente sweep. */
+    public void setPosition(double x, double y) { body.setPosition(x, y); body.savePrevious(); }
 
-    public double getCenterY() {
-        Bounds b = sprite.getBoundsInParent();
-        return (b.getMinY() + b.getMaxY()) * 0.5;
-    }
+    public double getCenterX() { return body.getCenterX(); }
+    public double getCenterY() { return body.getCenterY(); }
 
-    public void setCenter(double cx, double cy) {
-        Bounds local = sprite.getBoundsInLocal();
-        double w = local.getWidth();
-        double h = local.getHeight();
-        sprite.setTranslateX(cx - w * 0.5);
-        sprite.setTranslateY(cy - h * 0.5);
-    }
+    public void setCenter(double cx, double cy) { body.setCenter(cx, cy); }
 
     // ===== Danno / Invulnerabilità / Anelli =====
+    /** Lampeggio: opacità 1 -> 0.2 e ritorno, ciascuna metà dura {@code seconds}. */
     private void flash(double seconds) {
-        FadeTransition ft = new FadeTransition(Duration.seconds(seconds), sprite);
-        ft.setFromValue(1.0);
-        ft.setToValue(0.2);
-        ft.setAutoReverse(true);
-        ft.setCycleCount(2);
-        ft.play();
+        flashDuration = seconds;
+        flashTime = seconds * 2.0;
+    }
+
+    private double flashOpacity() {
+        if (flashTime <= 0 || flashDuration <= 0) return 1.0;
+        double t = Math.abs(flashTime - flashDuration) / flashDuration; // 1 ai bordi, 0 a metà
+        return 0.2 + 0.8 * Math.min(1.0, t);
     }
 
     /** Gestisce la perdita anelli o la morte. */
@@ -438,11 +479,11 @@ public class Player {
             if (damageCM != null && damageWorld != null) {
                 for (int i = 0; i < toDrop; i++) {
                     double angle = (Math.PI * 2.0) * (i / (double) toDrop);
-                    double rvx = Math.cos(angle) * 160.0 + (Math.random() - 0.5) * 60.0;
-                    double rvy = -Math.abs(Math.sin(angle) * 220.0) - 80.0 * Math.random();
+                    double rvx = Math.cos(angle) * 160.0 + (random.nextDouble() - 0.5) * 60.0;
+                    double rvy = -Math.abs(Math.sin(angle) * 220.0) - 80.0 * random.nextDouble();
                     double ox  = Math.cos(angle) * 18.0;
                     double oy  = Math.sin(angle) * 14.0;
-                    damageCM.addRing(new game.world.Ring(damageWorld, px + ox, py - 10 + oy, rvx, rvy, 3.0));
+                    damageCM.addRing(new game.world.Ring(null, px + ox, py - 10 + oy, rvx, rvy, 3.0));
                 }
             }
             rings = 0;
@@ -465,11 +506,11 @@ public class Player {
     public boolean consumeDeathQueued() { boolean b = deathQueued; deathQueued = false; return b; }
 
     // ===== Helpers =====
-    private static Image firstImage(String... uris) {
-        for (String u : uris) {
+    private static Region firstRegion(String... paths) {
+        for (String p : paths) {
             try {
-                Image img = new Image(u);
-                if (!img.isError() && img.getWidth() > 0) return img;
+                Region r = TextureAtlas.region(p);
+                if (r != null && r.getWidth() > 0) return r;
             } catch (Throwable ignored) {}
         }
         return null;
@@ -487,35 +528,33 @@ public class Player {
         return current + Math.copySign(maxDelta, delta);
     }
 
-    private void setAnimation(Image img) {
-        if (img == null) return;
-        if (sprite.getImage() != img) sprite.setImage(img);
+    private void setAnimation(Region img) {
+        if (img != null) animImage = img;
     }
 
     private void updateAnimation() {
         int inputDir = (right ? 1 : 0) - (left ? 1 : 0);
         if (inputDir != 0)      facing = inputDir;
         else if (Math.abs(vx) > 1.0) facing = (vx > 0 ? 1 : -1);
-        sprite.setScaleX(facing);
 
-        Image target;
+        Region target;
         double speed = Math.abs(vx);
 
         if (!onGround) {
-            target = (jumpUpGif != null ? jumpUpGif : (idleGif != null ? idleGif : sprite.getImage()));
+            target = (jumpUpGif != null ? jumpUpGif : (idleGif != null ? idleGif : animImage));
         } else if (chargingSpin) {
-            target = (spinChargeGif != null ? spinChargeGif : (idleGif != null ? idleGif : sprite.getImage()));
+            target = (spinChargeGif != null ? spinChargeGif : (idleGif != null ? idleGif : animImage));
         } else {
             boolean reversing = (left && vx > 0) || (right && vx < 0);
             boolean doSkid = (skidTimer > 0) || (reversing && speed > Math.max(SKID_SPEED_MIN, TOP_SPEED_GROUND * SKID_FACTOR));
             if (doSkid && skidGif != null) {
                 target = skidGif;
             } else if (speed > RUN_MIN_SPEED) {
-                target = (runGif != null ? runGif : (walkGif != null ? walkGif : (idleGif != null ? idleGif : sprite.getImage())));
+                target = (runGif != null ? runGif : (walkGif != null ? walkGif : (idleGif != null ? idleGif : animImage)));
             } else if (speed > 20) {
-                target = (walkGif != null ? walkGif : (runGif != null ? runGif : (idleGif != null ? idleGif : sprite.getImage())));
+                target = (walkGif != null ? walkGif : (runGif != null ? runGif : (idleGif != null ? idleGif : animImage)));
             } else {
-                target = (down && crouchGif != null) ? crouchGif : (idleGif != null ? idleGif : sprite.getImage());
+                target = (down && crouchGif != null) ? crouchGif : (idleGif != null ? idleGif : animImage);
             }
         }
 
@@ -1,11 +1,12 @@
 package game.entities;
 
 
-import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.geometry.Bounds;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /** Simple projectile with linear velocity and auto-despawn on lifetime end. */
 public class Projectile {
@@ -15,6 +16,7 @@ public Projectile(Group root, double x, double y, double vx, double vy) {
 }
 
     private final ImageView sprite;
+    private final Hitbox body;
     private double vx, vy;
     private double life; // seconds
     private boolean alive = true;
@@ -23,25 +25,26 @@ public Projectile(Group root, double x, double y, double vx, double vy) {
         this.vx = vx;
         this.vy = vy;
         this.life = life;
-        Image img = new Image("file:src/game/assets/images/entities/enemies/missile.gif", 16, 16, true, true, true);
-        sprite = new ImageView(img);
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(y);
-        root.getChildren().add(sprite);
+        sprite = new AtlasSprite(TextureAtlas.region("entities/enemies/missile.gif"), 16, 16);
+        body = new Hitbox(x, y, 16, 16);
+        body.setFilter(CollisionLayer.ENEMY_PROJECTILE, CollisionLayer.PLAYER | CollisionLayer.SOLID);
+        body.applyTo(sprite);
+        // root null: lo sprite viene agganciato dal CollisionManager (addProjectile)
+        if (root != null) root.getChildren().add(sprite);
     }
 
     public void update(double dt) {
+        body.savePrevious();
         if (!alive) return;
         life -= dt;
         if (life <= 0) { alive = false; return; }
-        sprite.setTranslateX(sprite.getTranslateX() + vx * dt);
-        sprite.setTranslateY(sprite.getTranslateY() + vy * dt);
+        body.translate(vx * dt, vy * dt);
         // apply slight gravity
         vy += 12 * dt;
     }
 
     public boolean isAlive() { return alive; }
     public void kill() { alive = false; }
-    public Bounds getBounds() { return sprite.getBoundsInParent(); }
+    public Hitbox getBounds() { return body; }
     public ImageView getSprite() { return sprite; }
 }
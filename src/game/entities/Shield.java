@@ -5,6 +5,7 @@ import javafx.scene.Node;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import game.util.Quality;
 
 /**
  * Scudo visuale: cerchio semitrasparente che segue il player.
@@ -57,7 +58,7 @@ public class Shield {
         DropShadow glow = new DropShadow();
         glow.setColor(stroke);
         glow.setRadius(12);
-        outer.setEffect(glow);
+        Quality.setEffect(outer, glow); // solo a qualità HIGH
 
         node.getChildren().addAll(outer, inner);
 
@@ -1,11 +1,14 @@
 package game.entities;
 
 import javafx.scene.Group;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import java.util.ArrayList;
 import java.util.List;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionEvents;
 import game.world.CollisionManager;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /**
  * Nemico che cammina avanti e indietro e spara due proiettili parabolici
@@ -22,7 +25,8 @@ public class ShooterEnemy extends EnemyBase {
     private final CollisionManager cm;
 
     // movimento tipo WalkerEnemy
-    private double speed = 1.2;
+    private double speed = 72.0; // px/s (era 1.2 px per frame a 60 Hz)
+    private double t = 0.0; // orologio proprio: avanza solo quando il nemico è attivo
 
     // shooting
     private double shootCooldown = 1.6; // secondi tra raffiche
@@ -40,19 +44,31 @@ public class ShooterEnemy extends EnemyBase {
     public ShooterEnemy(Group root, double x, double y, CollisionManager cm) {
         this.root = root;
         this.cm = cm;
-        Image img = new Image("file:src/game/assets/images/entities/enemies/shooter.gif", 40, 40, true, true, true);
-        sprite = new ImageView(img);
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(y);
+        sprite = new AtlasSprite(TextureAtlas.region("entities/enemies/shooter.gif"), 40, 40);
+        body = new Hitbox(x, y, 40, 40);
+        body.setFilter(CollisionLayer.ENEMY, CollisionLayer.PLAYER);
+        spawnX = x;
+        spawnY = y;
+        body.applyTo(sprite);
         root.getChildren().add(sprite);
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        t = 0.0;
+        tShoot = 0.0;
+        owned.clear(); // i proiettili li toglie CollisionManager.reset()
+    }
+
     @Override
     public void update(double dt) {
+        body.savePrevious();
         if (!alive) return;
 
         // Walker-like oscillation
-        sprite.setTranslateX(sprite.getTranslateX() + Math.sin(System.nanoTime() * 1e-9) * speed);
+        t += dt;
+        body.translate(Math.sin(t) * speed * dt, 0);
 
         // shooting timer
         tShoot += dt;
@@ -63,9 +79,9 @@ public class ShooterEnemy extends EnemyBase {
     }
 
     @Override
-    public void onPlayerCollision(Player player) {
+    public void onPlayerCollision(Player player, CollisionEvents events) {
         // usa la logica base (stomp, danno, ecc.)
-        super.onPlayerCollision(player);
+        super.onPlayerCollision(player, events);
         // se il nemico è morto via stomp, puliamo i proiettili ancora a schermo
         if (!alive) cleanupProjectiles();
     }
@@ -82,12 +98,13 @@ public class ShooterEnemy extends EnemyBase {
 
     private void shootPair() {
         if (!alive) return;
-        double x = sprite.getTranslateX() + 20; // centro sprite
-        double y = sprite.getTranslateY() + 8;
+        double x = body.getX() + 20; // centro sprite
+        double y = body.getY() + 8;
 
-        // sinistra e destra
-        Projectile left  = new Projectile(root, x, y, -bulletSpeedX, bulletSpeedY);
-        Projectile right = new Projectile(root, x, y,  bulletSpeedX, bulletSpeedY);
+        // sinistra e destra (col CollisionManager niente grafo di scena qui: update() può girare in parallelo)
+        Group parent = (cm != null) ? null : root;
+        Projectile left  = new Projectile(parent, x, y, -bulletSpeedX, bulletSpeedY);
+        Projectile right = new Projectile(parent, x, y,  bulletSpeedX, bulletSpeedY);
 
         owned.add(left);
         owned.add(right);
@@ -95,20 +112,17 @@ public class ShooterEnemy extends EnemyBase {
         if (cm != null) {
             cm.addProjectile(left);
             cm.addProjectile(right);
+            cm.emit(CollisionEvents.PROJECTILE_FIRED, this);
+        } else {
+            try { game.audio.SoundManager.playSfx("/assets/sfx/shoot.wav"); } catch (Throwable ignored) {}
         }
-
-        try { game.audio.SoundManager.playSfx("/assets/sfx/shoot.wav"); } catch (Throwable ignored) {}
     }
 
+    // i proiettili uccisi vengono tolti dalla scena dal CollisionManager (evento DESPAWN)
     private void cleanupProjectiles() {
         for (int i = owned.size() - 1; i >= 0; --i) {
             Projectile p = owned.get(i);
-            if (p != null && p.isAlive()) {
-                p.kill();
-                if (p.getSprite().getParent() instanceof Group) {
-                    ((Group) p.getSprite().getParent()).getChildren().remove(p.getSprite());
-                }
-            }
+            if (p != null && p.isAlive()) p.kill();
             owned.remove(i);
         }
     }
@@ -1,25 +1,37 @@
 package game.entities;
 
 
-import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 public class WalkerEnemy extends EnemyBase {
-    private double speed = 1.2;
+    private double speed = 72.0; // px/s (era 1.2 px per frame a 60 Hz)
+    private double t = 0.0; // orologio proprio: avanza solo quando il nemico è attivo
 
     public WalkerEnemy(Group root, double x, double y) {
-        Image img = new Image("file:src/game/assets/images/entities/enemies/walker.gif", 40, 40, true, true, true);
-        sprite = new ImageView(img);
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(y);
+        sprite = new AtlasSprite(TextureAtlas.region("entities/enemies/walker.gif"), 40, 40);
+        body = new Hitbox(x, y, 40, 40);
+        body.setFilter(CollisionLayer.ENEMY, CollisionLayer.PLAYER);
+        spawnX = x;
+        spawnY = y;
+        body.applyTo(sprite);
         root.getChildren().add(sprite);
     }
 
+    @Override
+    public void reset() {
+        super.reset();
+        t = 0.0;
+    }
+
     @Override
     public void update(double dt) {
+        body.savePrevious();
         if (!alive) return;
-        sprite.setTranslateX(sprite.getTranslateX() + Math.sin(System.nanoTime()*1e-9)*speed);
+        t += dt;
+        body.translate(Math.sin(t)*speed*dt, 0);
     }
 }
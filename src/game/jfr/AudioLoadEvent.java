@@ -0,0 +1,22 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** AudioClip creation in SoundManager (cache miss). */
+@Name("game.AudioLoad")
+@Label("Audio Load")
+@Category({"SonicX", "Loading"})
+public class AudioLoadEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(AudioLoadEvent.class);
+
+    @Label("Source")
+    public String source;
+
+    @Label("Loaded")
+    public boolean loaded;
+}
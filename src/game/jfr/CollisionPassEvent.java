@@ -0,0 +1,40 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One CollisionManager.update() pass. */
+@Name("game.CollisionPass")
+@Label("Collision Pass")
+@Category({"SonicX", "Collision"})
+@Description("Physics and collision pass of CollisionManager.update()")
+public class CollisionPassEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(CollisionPassEvent.class);
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Projectiles")
+    public int projectiles;
+
+    @Label("Rings")
+    public int rings;
+
+    @Label("Events Queued")
+    @Description("Collision events raised by the pass")
+    public int events;
+
+    @Label("Parallel")
+    public boolean parallel;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the pass (-1 unless -Dgame.allocBudget is set)")
+    @DataAmount
+    public long allocatedBytes = -1L;
+}
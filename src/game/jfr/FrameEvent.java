@@ -0,0 +1,26 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One paced frame on the FX thread (dispatch, HUD, snapshot apply, camera). */
+@Name("game.Frame")
+@Label("Frame")
+@Category({"SonicX", "Game Loop"})
+@Description("Work done by the FX thread in one frame")
+public class FrameEvent extends Event {
+
+    /** Controllo senza allocazioni: creare l'evento solo se TYPE.isEnabled(). */
+    public static final EventType TYPE = EventType.getEventType(FrameEvent.class);
+
+    @Label("Sprites Applied")
+    public int sprites;
+
+    @Label("Fresh Snapshot")
+    @Description("A new simulation snapshot was consumed in this frame")
+    public boolean freshSnapshot;
+}
@@ -0,0 +1,38 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Image creation through ResourceUtil. */
+@Name("game.ImageLoad")
+@Label("Image Load")
+@Category({"SonicX", "Loading"})
+public class ImageLoadEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(ImageLoadEvent.class);
+
+    @Label("URL")
+    public String url;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Bytes Decoded")
+    @Description("Width x height x 4 (ARGB); -1 while a background load is still running")
+    @DataAmount
+    public long bytesDecoded;
+
+    @Label("Background Loading")
+    public boolean background;
+
+    @Label("Error")
+    public boolean error;
+}
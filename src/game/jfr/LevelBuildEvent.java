@@ -0,0 +1,31 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Level.build(): entities, indices and scene nodes of a level. */
+@Name("game.LevelBuild")
+@Label("Level Build")
+@Category({"SonicX", "Loading"})
+public class LevelBuildEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(LevelBuildEvent.class);
+
+    @Label("Level")
+    public int level;
+
+    @Label("World Nodes")
+    public int worldNodes;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Rings")
+    public int rings;
+
+    @Label("Headless")
+    public boolean headless;
+}
@@ -0,0 +1,30 @@
+package game.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One fixed simulation step (input, Player.tick, collisions, events, rules). */
+@Name("game.SimStep")
+@Label("Simulation Step")
+@Category({"SonicX", "Game Loop"})
+@Description("One fixed-rate simulation step")
+public class SimStepEvent extends Event {
+
+    public static final EventType TYPE = EventType.getEventType(SimStepEvent.class);
+
+    @Label("Step")
+    public long step;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Projectiles")
+    public int projectiles;
+
+    @Label("Rings")
+    public int rings;
+}
@@ -4,10 +4,41 @@ package game.levels;
 import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import game.entities.Player;
+import game.jfr.LevelBuildEvent;
+import game.util.ResourceUtil;
 import game.world.CollisionManager;
+import game.world.Parallax;
 
 public interface Level {
-    void build(Group parallax, Group root, Player player, CollisionManager cm);
+    void build(Parallax parallax, Group root, Player player, CollisionManager cm);
     double getGroundY();
     double getFinishX();
+    /** Musica del livello (classpath); la avvia chi mostra il livello, non build(). */
+    String getMusic();
+
+    /** level.build(...) registrato come evento JFR game.LevelBuild (conteggi a fine build). */
+    static void build(Level level, int index, Parallax parallax, Group root, Player player, CollisionManager cm) {
+        LevelBuildEvent ev = LevelBuildEvent.TYPE.isEnabled() ? new LevelBuildEvent() : null;
+        if (ev != null) ev.begin();
+        cm.setLevelExtent(level.getFinishX(), level.getGroundY());
+        level.build(parallax, root, player, cm);
+        if (ev != null) {
+            ev.end();
+            if (ev.shouldCommit()) {
+                ev.level = index;
+                ev.worldNodes = root.getChildren().size();
+                ev.enemies = cm.getEnemyCount();
+                ev.rings = cm.getRingCount();
+                ev.headless = ResourceUtil.isHeadless();
+                ev.commit();
+            }
+        }
+    }
+
+    /** Livello per indice di menu (1, 2, altrimenti 3). */
+    static Level create(int index) {
+        if (index == 1) return new Level1();
+        if (index == 2) return new Level2();
+        return new Level3();
+    }
 }
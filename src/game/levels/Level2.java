@@ -5,8 +5,7 @@ import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import game.entities.Player;
 import game.world.CollisionManager;
-import game.audio.SoundManager;
-import game.world.Background;
+import game.world.Parallax;
 import game.world.elements.*;
 import game.world.Ring;
 import game.entities.WalkerEnemy;
@@ -19,16 +18,11 @@ public class Level2 implements Level {
     private final double finishX = 4600;
 
     @Override
-    public void build(Group parallax, Group root, Player player, CollisionManager cm) {
+    public void build(Parallax parallax, Group root, Player player, CollisionManager cm) {
         
 // === Background ===
-// Tile the background across the level width (parallax layer)
-int bgTiles = (int) Math.ceil(getFinishX() / 1280.0) + 2;
-for (int i = 0; i < bgTiles; i++) {
-    new Background(parallax, "file:src/game/assets/images/world/bg2.png", 1280, 720, i * 1280.0);
-}
-// play level-specific music
-        SoundManager.playMusic("/assets/music/level2.mp3");
+// Layer di parallax che si riavvolge con la camera (2 copie, qualunque sia la lunghezza)
+parallax.addLayer("file:src/game/assets/images/world/bg2.png", 1280, 720, 0.5);
 
         // Background moved to parallax layer in GameApp
 // Terreno a terrazze
@@ -59,4 +53,5 @@ for (int i = 0; i < bgTiles; i++) {
 
     @Override public double getGroundY() { return groundY; }
     @Override public double getFinishX() { return finishX; }
+    @Override public String getMusic() { return "/assets/music/level2.mp3"; }
 }
\ No newline at end of file
@@ -5,8 +5,7 @@ import javafx.scene.Group;
 import game.entities.Boss;
 import game.entities.Player;
 import game.world.CollisionManager;
-import game.audio.SoundManager;
-import game.world.Background;
+import game.world.Parallax;
 import game.world.elements.Platform;
 import game.world.elements.Spring;
 import game.world.Ring;
@@ -21,16 +20,11 @@ public class Level3 implements Level {
     public Boss getBoss() { return boss; }
 
     @Override
-    public void build(Group parallax, Group root, Player player, CollisionManager cm) {
+    public void build(Parallax parallax, Group root, Player player, CollisionManager cm) {
         
 // === Background ===
-// Tile the background across the level width (parallax layer)
-int bgTiles = (int) Math.ceil(getFinishX() / 1280.0) + 2;
-for (int i = 0; i < bgTiles; i++) {
-    new Background(parallax, "file:src/game/assets/images/world/bg3.png", 1280, 720, i * 1280.0);
-}
-// play level-specific music
-        SoundManager.playMusic("/assets/music/level3.mp3");
+// Layer di parallax che si riavvolge con la camera (2 copie, qualunque sia la lunghezza)
+parallax.addLayer("file:src/game/assets/images/world/bg3.png", 1280, 720, 0.5);
 
 
         // 3 piattaforme iniziali
@@ -70,4 +64,5 @@ for (int i = 0; i < bgTiles; i++) {
 
     @Override public double getGroundY() { return groundY; }
     @Override public double getFinishX() { return finishX; }
+    @Override public String getMusic() { return "/assets/music/level3.mp3"; }
 }
\ No newline at end of file
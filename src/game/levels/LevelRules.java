@@ -0,0 +1,98 @@
+package game.levels;
+
+import game.Constants;
+import game.entities.Boss;
+import game.entities.Player;
+import game.sim.RenderSnapshot;
+import game.sim.SimulationLoop;
+import game.world.Hitbox;
+import game.world.elements.FinishGate;
+
+/**
+ * Regole di un livello in corso, eseguite sul thread di simulazione:
+ * - vite e respawn (morte senza anelli o caduta sotto il terreno);
+ * - checkpoint a metà livello (non nel Level 3);
+ * - arrivo al gate (nel Level 3 solo a boss sconfitto).
+ * L'HUD le legge dallo snapshot (capture()); senza finestra basta getOutcome().
+ */
+public final class LevelRules implements SimulationLoop.Rules {
+
+    private final int index;
+    private final Level level;
+    private final Player player;
+    private final FinishGate gate;
+    private final Boss boss;
+    private final String bossLabel;
+
+    private int lives;
+    private double spawnX, spawnY;
+    private boolean checkpoint = false;
+    private boolean respawned = false;
+    private int outcome = RenderSnapshot.OUTCOME_NONE;
+
+    public LevelRules(int index, Level level, Player player, FinishGate gate) {
+        this.index = index;
+        this.level = level;
+        this.player = player;
+        this.gate = gate;
+        this.boss = (level instanceof Level3 l3) ? l3.getBoss() : null;
+        this.bossLabel = (boss != null) ? boss.toString() : null;
+        reset();
+    }
+
+    /** Vite piene, spawn iniziale, niente checkpoint né esito (anche per il riavvio sul posto). */
+    public void reset() {
+        lives = Constants.PLAYER_LIVES;
+        spawnX = 200; // dentro la prima piattaforma (0..400)
+        spawnY = level.getGroundY() - player.getBounds().getHeight(); // appoggiato sul terreno
+        checkpoint = false;
+        respawned = false;
+        outcome = RenderSnapshot.OUTCOME_NONE;
+    }
+
+    /** Posizionamento iniziale sullo spawn, fermo. */
+    public void placeAtSpawn() {
+        player.setPosition(spawnX, spawnY);
+        player.setVelocityX(0);
+        player.setVelocityY(0);
+    }
+
+    @Override
+    public boolean afterStep() {
+        // Morte (danno senza anelli) o caduta: perde 1 vita e respawn, a 0 vite la partita finisce
+        boolean died = player.consumeDeathQueued();
+        if (died || player.getY() > level.getGroundY() + 300) {
+            lives--;
+            if (lives <= 0) { outcome = RenderSnapshot.OUTCOME_GAME_OVER; return false; }
+            placeAtSpawn();
+            respawned = true;
+        }
+
+        // --- CHECKPOINT a metà livello (disattivato nel Level 3) ---
+        if (index != 3 && (player.getX() >= level.getFinishX() * 0.5)) {
+            spawnX = level.getFinishX() * 0.5;
+            spawnY = level.getGroundY() - player.getBounds().getHeight();
+            checkpoint = true;
+        }
+
+        Hitbox pb = player.getBounds();
+        if (pb.intersects(gate.getBounds()) && (boss == null || boss.isDefeated())) {
+            outcome = RenderSnapshot.OUTCOME_LEVEL_COMPLETE;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void capture(RenderSnapshot s) {
+        s.setLives(lives);
+        if (respawned) { s.markRespawned(); respawned = false; }
+        if (checkpoint) s.setMessage("Checkpoint!");
+        // HUD boss (solo Level3)
+        if (boss != null) s.setBoss(boss.getHp(), bossLabel, boss.isDefeated());
+        s.setOutcome(outcome);
+    }
+
+    public int getLives() { return lives; }
+    public int getOutcome() { return outcome; }
+}
@@ -0,0 +1,234 @@
+package game.render;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Build-time packer for {@link TextureAtlas} (Gradle task packAtlas, no JavaFX needed).
+ * - Every PNG/GIF under the images dir, up to MAX_SIDE px per side, goes into square pages
+ *   of PAGE_SIZE px (shelf packing, tallest first, PADDING px of transparent border).
+ * - Animated GIFs are composited frame by frame (offsets, disposal) and each frame becomes
+ *   a region with its delay: the atlas animates them instead of the GIF decoder.
+ * - Output: atlasN.png pages + atlas.properties, read at runtime by TextureAtlas.
+ *
+ * Uso: AtlasPacker &lt;imagesDir&gt; &lt;outDir&gt; [exclude,...] (file, o cartella se finisce con '/')
+ */
+public final class AtlasPacker {
+
+    static final int PAGE_SIZE = 2048;
+    static final int MAX_SIDE = 512;
+    static final int PADDING = 2;
+
+    private static final class Frame {
+        final String key;
+        final int index;
+        final BufferedImage img;
+        final int delayMs;
+        int page, x, y;
+        Frame(String key, int index, BufferedImage img, int delayMs) {
+            this.key = key; this.index = index; this.img = img; this.delayMs = delayMs;
+        }
+    }
+
+    private AtlasPacker() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: AtlasPacker <imagesDir> <outDir> [exclude,...]");
+            System.exit(2);
+        }
+        Path in = Paths.get(args[0]);
+        Path out = Paths.get(args[1]);
+        Set<String> exclude = new HashSet<>();
+        if (args.length > 2) exclude.addAll(Arrays.asList(args[2].split(",")));
+
+        List<Frame> frames = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(in)) {
+            for (Path p : (Iterable<Path>) files.sorted()::iterator) {
+                String name = p.getFileName().toString().toLowerCase();
+                if (!Files.isRegularFile(p) || !(name.endsWith(".png") || name.endsWith(".gif"))) continue;
+                String key = in.relativize(p).toString().replace('\\', '/');
+                if (excluded(key, exclude)) continue;
+                List<Frame> f = read(key, p);
+                if (f.isEmpty()) continue;
+                BufferedImage first = f.get(0).img;
+                if (first.getWidth() > MAX_SIDE || first.getHeight() > MAX_SIDE) continue; // fondali: restano file singoli
+                frames.addAll(f);
+                keys.add(key);
+            }
+        }
+
+        int pages = pack(frames);
+        Files.createDirectories(out);
+        for (int pg = 0; pg < pages; pg++) {
+            BufferedImage page = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = page.createGraphics();
+            for (Frame f : frames) if (f.page == pg) g.drawImage(f.img, f.x, f.y, null);
+            g.dispose();
+            ImageIO.write(crop(page, frames, pg), "png", out.resolve("atlas" + pg + ".png").toFile());
+        }
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out.resolve(TextureAtlas.INDEX_FILE)))) {
+            w.println("# generated by game.render.AtlasPacker: path=page;x,y,w,h,delayMs;...");
+            w.println("pages=" + pages);
+            for (String key : keys) {
+                StringBuilder sb = new StringBuilder();
+                for (Frame f : frames) {
+                    if (!f.key.equals(key)) continue;
+                    if (sb.length() == 0) sb.append(f.page);
+                    sb.append(';').append(f.x).append(',').append(f.y).append(',')
+                      .append(f.img.getWidth()).append(',').append(f.img.getHeight()).append(',').append(f.delayMs);
+                }
+                w.println(key + "=" + sb);
+            }
+        }
+        System.out.println("[Atlas] " + keys.size() + " images, " + frames.size() + " regions, " + pages + " page(s) -> " + out);
+    }
+
+    private static boolean excluded(String key, Set<String> exclude) {
+        if (exclude.contains(key)) return true;
+        for (String e : exclude) if (e.endsWith("/") && key.startsWith(e)) return true;
+        return false;
+    }
+
+    /** Shelf packing; the frames of one image stay on the same page. Returns the page count. */
+    private static int pack(List<Frame> frames) {
+        List<List<Frame>> groups = new ArrayList<>();
+        for (Frame f : frames) {
+            if (f.index == 0) groups.add(new ArrayList<>());
+            groups.get(groups.size() - 1).add(f);
+        }
+        groups.sort(Comparator.comparingInt((List<Frame> g) -> g.get(0).img.getHeight()).reversed());
+        int page = 0, x = 0, y = 0, shelf = 0;
+        for (List<Frame> g : groups) {
+            for (int attempt = 0; ; attempt++) {
+                int px = x, py = y, ps = shelf;
+                boolean fits = true;
+                for (Frame f : g) {
+                    int w = f.img.getWidth() + PADDING, h = f.img.getHeight() + PADDING;
+                    if (px + w > PAGE_SIZE) { px = 0; py += ps; ps = 0; }
+                    if (py + h > PAGE_SIZE) { fits = false; break; }
+                    f.page = page; f.x = px; f.y = py;
+                    px += w;
+                    ps = Math.max(ps, h);
+                }
+                if (fits) { x = px; y = py; shelf = ps; break; }
+                if (attempt > 0) throw new IllegalStateException("image too large for an atlas page: " + g.get(0).key);
+                page++; x = 0; y = 0; shelf = 0;
+            }
+        }
+        return frames.isEmpty() ? 0 : page + 1;
+    }
+
+    /** Trims the unused bottom of a page (power of two not needed by JavaFX). */
+    private static BufferedImage crop(BufferedImage page, List<Frame> frames, int pg) {
+        int h = 1;
+        for (Frame f : frames) if (f.page == pg) h = Math.max(h, f.y + f.img.getHeight() + PADDING);
+        return page.getSubimage(0, 0, PAGE_SIZE, Math.min(PAGE_SIZE, h));
+    }
+
+    // --- lettura ---
+
+    private static List<Frame> read(String key, Path p) throws IOException {
+        List<Frame> out = new ArrayList<>();
+        try (ImageInputStream iis = ImageIO.createImageInputStream(p.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return out;
+            ImageReader r = readers.next();
+            try {
+                r.setInput(iis, false);
+                int n = r.getNumImages(true);
+                if (n <= 1 || !"gif".equalsIgnoreCase(r.getFormatName())) {
+                    out.add(new Frame(key, 0, argb(r.read(0)), 0));
+                    return out;
+                }
+                int[] screen = logicalScreen(r.getStreamMetadata(), r.read(0));
+                BufferedImage canvas = new BufferedImage(screen[0], screen[1], BufferedImage.TYPE_INT_ARGB);
+                for (int i = 0; i < n; i++) {
+                    BufferedImage img = r.read(i);
+                    Node root = r.getImageMetadata(i).getAsTree("javax_imageio_gif_image_1.0");
+                    Node desc = child(root, "ImageDescriptor");
+                    Node gce = child(root, "GraphicControlExtension");
+                    int fx = attr(desc, "imageLeftPosition"), fy = attr(desc, "imageTopPosition");
+                    int delay = (gce != null) ? attr(gce, "delayTime") * 10 : 100;
+                    String disposal = (gce != null) ? gce.getAttributes().getNamedItem("disposalMethod").getNodeValue() : "none";
+
+                    BufferedImage before = "restoreToPrevious".equals(disposal) ? copy(canvas) : null;
+                    Graphics2D g = canvas.createGraphics();
+                    g.drawImage(img, fx, fy, null);
+                    g.dispose();
+                    out.add(new Frame(key, i, copy(canvas), Math.max(delay, 20))); // 0 ms: i browser usano ~100, noi almeno 20
+                    if ("restoreToBackgroundColor".equals(disposal)) {
+                        Graphics2D c = canvas.createGraphics();
+                        c.setComposite(java.awt.AlphaComposite.Clear);
+                        c.fillRect(fx, fy, img.getWidth(), img.getHeight());
+                        c.dispose();
+                    } else if (before != null) {
+                        canvas = before;
+                    }
+                }
+            } finally {
+                r.dispose();
+            }
+        }
+        return out;
+    }
+
+    private static int[] logicalScreen(IIOMetadata stream, BufferedImage first) {
+        if (stream != null) {
+            Node sd = child(stream.getAsTree("javax_imageio_gif_stream_1.0"), "LogicalScreenDescriptor");
+            if (sd != null) {
+                int w = attr(sd, "logicalScreenWidth"), h = attr(sd, "logicalScreenHeight");
+                if (w > 0 && h > 0) return new int[]{ w, h };
+            }
+        }
+        return new int[]{ first.getWidth(), first.getHeight() };
+    }
+
+    private static Node child(Node parent, String name) {
+        NodeList list = parent.getChildNodes();
+        for (int i = 0; i < list.getLength(); i++) {
+            if (name.equals(list.item(i).getNodeName())) return list.item(i);
+        }
+        return null;
+    }
+
+    private static int attr(Node node, String name) {
+        Node a = (node != null) ? node.getAttributes().getNamedItem(name) : null;
+        return (a != null) ? Integer.parseInt(a.getNodeValue()) : 0;
+    }
+
+    private static BufferedImage argb(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_ARGB) return src;
+        return copy(src);
+    }
+
+    private static BufferedImage copy(BufferedImage src) {
+        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = dst.createGraphics();
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return dst;
+    }
+}
@@ -0,0 +1,67 @@
+package game.render;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javafx.application.Platform;
+import javafx.scene.image.ImageView;
+
+/**
+ * ImageView showing a {@link TextureAtlas.Region}: the atlas page as image and the region
+ * (current frame) as viewport. Both the node path and {@link CanvasRenderer} draw it as a
+ * plain ImageView, so sprites of the same page share one texture.
+ * - Animated regions: the viewport is bound to the region, which TextureAtlas.advance()
+ *   moves along. The binding is made on the FX thread only: a sprite created on the
+ *   prebuild or simulation thread is queued and bound by the next TextureAtlas.advance().
+ * - A null region (headless) leaves the view empty, like a null Image did.
+ */
+public final class AtlasSprite extends ImageView {
+
+    private static final ConcurrentLinkedQueue<AtlasSprite> PENDING = new ConcurrentLinkedQueue<>();
+
+    private TextureAtlas.Region region;
+    private volatile boolean pending = false; // animata, da legare sul thread FX
+
+    /** Natural size (the region's frame size). */
+    public AtlasSprite(TextureAtlas.Region region) {
+        setRegion(region);
+    }
+
+    /** Fitted into w x h, keeping the aspect ratio (as loadImage(url, w, h, true, ...) did). */
+    public AtlasSprite(TextureAtlas.Region region, double w, double h) {
+        setFitWidth(w);
+        setFitHeight(h);
+        setPreserveRatio(true);
+        setRegion(region);
+    }
+
+    public TextureAtlas.Region getRegion() { return region; }
+
+    /** Switches region (e.g. animation change); no-op if unchanged. */
+    public void setRegion(TextureAtlas.Region r) {
+        if (r == region) return;
+        region = r;
+        pending = false;
+        if (viewportProperty().isBound()) viewportProperty().unbind();
+        if (r == null) {
+            setImage(null);
+            setViewport(null);
+            return;
+        }
+        setImage(r.getImage());
+        setViewport(r.getViewport());
+        if (r.isAnimated()) {
+            if (Platform.isFxApplicationThread()) viewportProperty().bind(r.viewportProperty());
+            else { pending = true; PENDING.offer(this); }
+        }
+    }
+
+    /** Binds the sprites queued by other threads. FX thread (from TextureAtlas.advance). */
+    static void bindPending() {
+        AtlasSprite s;
+        while ((s = PENDING.poll()) != null) {
+            if (!s.pending) continue; // regione cambiata nel frattempo
+            s.pending = false;
+            s.viewportProperty().bind(s.region.viewportProperty());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package game.render;
+
+import java.util.Arrays;
+
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+
+import game.util.Quality;
+
+/**
+ * Draws the parallax and world groups into one Canvas per frame, instead of putting them
+ * in the scene (optional backend, -Dgame.renderer=canvas; the node path stays the default).
+ * - The groups are kept off the scene graph: the snapshot, events and camera keep writing
+ *   into their nodes as usual, but JavaFX no longer syncs or re-bounds thousands of nodes
+ *   each pulse. The nodes are only read here, as sprite descriptions.
+ * - Each frame: collect visible nodes whose box (stroke, scale and rotate included) meets
+ *   the viewport (+ CULL_MARGIN) on both axes, sort by (layer, texture, insertion order),
+ *   draw. Keys are packed longs sorted in place, so a frame does not allocate.
+ * - Draw order differs from the node path: layers ({@link RenderLayer}) come first, and
+ *   within a layer nodes are batched by texture, so two overlapping nodes of the same
+ *   layer may swap. DECOR (loop follower, springs, untagged nodes) is not batched and
+ *   keeps insertion order; between layers the higher one is always on top (e.g. rings,
+ *   PICKUP, over the loop follower, DECOR, whatever their order in the group).
+ * - Supported: ImageView (fit size, preserveRatio, viewport), Rectangle and Circle
+ *   (fill/stroke, ImagePattern anchored like the node), nested Groups; translate, scale,
+ *   rotate, opacity and effect of each node. Groups contribute their translation only
+ *   (none is scaled or rotated in the game); a group that is gets culled as a whole by
+ *   its bounds. Anything else is skipped.
+ * - The canvas has no size of its own: bindTo(scene) makes it follow the scene.
+ */
+public final class CanvasRenderer {
+
+    private static final double CULL_MARGIN = 64.0;
+
+    private final Canvas canvas = new Canvas();
+    private final GraphicsContext gc = canvas.getGraphicsContext2D();
+    private final Group parallax;
+    private final Group world;
+
+    private Node[] items = new Node[256];
+    private double[] offX = new double[256], offY = new double[256];
+    private long[] keys = new long[256];
+    private int count = 0;
+
+    public CanvasRenderer(Group parallax, Group world) {
+        this.parallax = parallax;
+        this.world = world;
+    }
+
+    /** The node to put in the scene in place of the parallax and world groups. */
+    public Canvas getCanvas() { return canvas; }
+
+    /** Sizes the canvas to the scene and keeps it in sync on resize (FX thread). */
+    public void bindTo(Scene scene) {
+        canvas.widthProperty().bind(scene.widthProperty());
+        canvas.heightProperty().bind(scene.heightProperty());
+    }
+
+    /** Items drawn in the last frame (after culling). */
+    public int getDrawnCount() { return count; }
+
+    /** One frame, FX thread. Group translations (camera) are read as set by the caller. */
+    public void render() {
+        double w = canvas.getWidth(), h = canvas.getHeight();
+        gc.setImageSmoothing(Quality.smoothing());
+        gc.clearRect(0, 0, w, h); // trasparente: sotto c'è il fill della scena
+
+        count = 0;
+        if (parallax.isVisible()) {
+            collect(parallax.getChildren(), RenderLayer.BACKGROUND, parallax.getTranslateX(), parallax.getTranslateY(), w, h, true);
+        }
+        if (world.isVisible()) {
+            collect(world.getChildren(), -1, world.getTranslateX(), world.getTranslateY(), w, h, true);
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++) {
+            int k = (int) keys[i]; // ordine di inserimento = indice negli array paralleli
+            draw(items[k], offX[k], offY[k]);
+        }
+    }
+
+    // --- raccolta ---
+
+    /**
+     * layer < 0: each node's own tag (world); otherwise forced (parallax, children of a tagged group).
+     * cull = false: the caller already tested the whole subtree (transformed group).
+     */
+    private void collect(ObservableList<Node> children, int layer, double ox, double oy,
+                         double viewW, double viewH, boolean cull) {
+        for (int i = 0, n = children.size(); i < n; i++) {
+            Node node = children.get(i);
+            if (!node.isVisible() || node.getOpacity() <= 0) continue;
+            if (node instanceof Group g) {
+                // gruppo marcato (scudo): impone il layer; non marcato (chunk del culler): decidono i figli
+                int gl = (layer >= 0) ? layer : RenderLayer.of(g, -1);
+                boolean cullChildren = cull;
+                if (cull && isTransformed(g)) {
+                    Bounds b = g.getBoundsInParent(); // scala/rotazione del gruppo incluse
+                    if (!inView(ox + b.getMinX(), oy + b.getMinY(), ox + b.getMaxX(), oy + b.getMaxY(), viewW, viewH)) continue;
+                    cullChildren = false;
+                }
+                collect(g.getChildren(), gl, ox + g.getTranslateX() + g.getLayoutX(), oy + g.getTranslateY() + g.getLayoutY(),
+                        viewW, viewH, cullChildren);
+                continue;
+            }
+            int l = (layer >= 0) ? layer : RenderLayer.of(node);
+            double x = ox + node.getTranslateX() + node.getLayoutX();
+            double y = oy + node.getTranslateY() + node.getLayoutY();
+            double left, top, w, h, stroke = 0.0;
+            int tex;
+            if (node instanceof ImageView iv) {
+                Image img = iv.getImage();
+                if (img == null) continue;
+                Rectangle2D vp = iv.getViewport();
+                left = x + iv.getX();
+                top = y + iv.getY();
+                w = Math.max(iv.getFitWidth(), (vp != null) ? vp.getWidth() : img.getWidth());
+                h = Math.max(iv.getFitHeight(), (vp != null) ? vp.getHeight() : img.getHeight());
+                tex = System.identityHashCode(img);
+            } else if (node instanceof Rectangle r) {
+                if (isClear(r.getFill()) && isClear(r.getStroke())) continue;
+                left = x + r.getX();
+                top = y + r.getY();
+                w = r.getWidth();
+                h = r.getHeight();
+                if (!isClear(r.getStroke())) stroke = r.getStrokeWidth();
+                tex = (r.getFill() instanceof ImagePattern p) ? System.identityHashCode(p.getImage()) : 0;
+            } else if (node instanceof Circle c) {
+                if (isClear(c.getFill()) && isClear(c.getStroke())) continue; // es. collider del loop
+                left = x + c.getCenterX() - c.getRadius();
+                top = y + c.getCenterY() - c.getRadius();
+                w = h = c.getRadius() * 2.0;
+                if (!isClear(c.getStroke())) stroke = c.getStrokeWidth();
+                tex = 0;
+            } else {
+                continue;
+            }
+            if (cull) {
+                // mezzi lati attorno al centro: tratto (anche OUTSIDE), poi scala e rotazione del nodo
+                double hw = w * 0.5 + stroke, hh = h * 0.5 + stroke;
+                double cx = left + w * 0.5, cy = top + h * 0.5;
+                double sx = Math.abs(node.getScaleX()), sy = Math.abs(node.getScaleY());
+                if (node.getRotate() != 0.0) {
+                    hw = hh = Math.hypot(hw, hh) * Math.max(sx, sy);
+                } else {
+                    hw *= sx;
+                    hh *= sy;
+                }
+                if (!inView(cx - hw, cy - hh, cx + hw, cy + hh, viewW, viewH)) continue;
+            }
+            if (l == RenderLayer.DECOR) tex = 0; // niente batching: resta l'ordine di inserimento
+            push(node, l, tex, ox, oy);
+        }
+    }
+
+    private static boolean isTransformed(Node n) {
+        return n.getScaleX() != 1.0 || n.getScaleY() != 1.0 || n.getRotate() != 0.0;
+    }
+
+    private static boolean inView(double minX, double minY, double maxX, double maxY, double viewW, double viewH) {
+        return maxX >= -CULL_MARGIN && minX <= viewW + CULL_MARGIN
+            && maxY >= -CULL_MARGIN && minY <= viewH + CULL_MARGIN;
+    }
+
+    private void push(Node node, int layer, int tex, double ox, double oy) {
+        if (count == items.length) grow();
+        int i = count++;
+        items[i] = node;
+        offX[i] = ox;
+        offY[i] = oy;
+        keys[i] = ((long) layer << 56) | ((long) (tex & 0xFFFFFF) << 32) | i;
+    }
+
+    private void grow() {
+        int n = items.length * 2;
+        items = Arrays.copyOf(items, n);
+        offX = Arrays.copyOf(offX, n);
+        offY = Arrays.copyOf(offY, n);
+        keys = Arrays.copyOf(keys, n);
+    }
+
+    private static boolean isClear(Paint p) {
+        return p == null || (p instanceof Color c && c.getOpacity() == 0);
+    }
+
+    // --- disegno ---
+
+    private void draw(Node node, double ox, double oy) {
+        double x = ox + node.getTranslateX() + node.getLayoutX();
+        double y = oy + node.getTranslateY() + node.getLayoutY();
+        double opacity = node.getOpacity();
+        Effect effect = node.getEffect();
+        boolean transformed = isTransformed(node);
+
+        if (opacity < 1.0) gc.setGlobalAlpha(opacity);
+        if (effect != null) gc.setEffect(effect);
+
+        if (node instanceof ImageView iv) {
+            Image img = iv.getImage();
+            Rectangle2D vp = iv.getViewport();
+            double sw = (vp != null) ? vp.getWidth() : img.getWidth();
+            double sh = (vp != null) ? vp.getHeight() : img.getHeight();
+            double dw = iv.getFitWidth() > 0 ? iv.getFitWidth() : sw;
+            double dh = iv.getFitHeight() > 0 ? iv.getFitHeight() : sh;
+            if (iv.isPreserveRatio() && sw > 0 && sh > 0) {
+                double s = (iv.getFitWidth() > 0 && iv.getFitHeight() > 0) ? Math.min(dw / sw, dh / sh)
+                         : (iv.getFitWidth() > 0 ? dw / sw : (iv.getFitHeight() > 0 ? dh / sh : 1.0));
+                dw = sw * s;
+                dh = sh * s;
+            }
+            double dx = x + iv.getX(), dy = y + iv.getY();
+            if (transformed) { beginTransform(node, dx, dy, dw, dh); dx = -dw * 0.5; dy = -dh * 0.5; }
+            if (vp != null) gc.drawImage(img, vp.getMinX(), vp.getMinY(), sw, sh, dx, dy, dw, dh);
+            else gc.drawImage(img, dx, dy, dw, dh);
+            if (transformed) gc.restore();
+        } else if (node instanceof Rectangle r) {
+            double rw = r.getWidth(), rh = r.getHeight();
+            // ImagePattern non proporzionale: ancorato all'origine locale, come nel nodo
+            gc.save();
+            if (transformed) beginTransform(node, x + r.getX(), y + r.getY(), rw, rh);
+            else gc.translate(x, y);
+            double lx = transformed ? -rw * 0.5 : r.getX(), ly = transformed ? -rh * 0.5 : r.getY();
+            if (!isClear(r.getFill())) { gc.setFill(r.getFill()); gc.fillRect(lx, ly, rw, rh); }
+            if (!isClear(r.getStroke())) { gc.setStroke(r.getStroke()); gc.setLineWidth(r.getStrokeWidth()); gc.strokeRect(lx, ly, rw, rh); }
+            if (transformed) gc.restore();
+            gc.restore();
+        } else if (node instanceof Circle c) {
+            double rad = c.getRadius();
+            double cx = x + c.getCenterX(), cy = y + c.getCenterY();
+            if (!isClear(c.getFill())) { gc.setFill(c.getFill()); gc.fillOval(cx - rad, cy - rad, rad * 2, rad * 2); }
+            if (!isClear(c.getStroke())) { gc.setStroke(c.getStroke()); gc.setLineWidth(c.getStrokeWidth()); gc.strokeOval(cx - rad, cy - rad, rad * 2, rad * 2); }
+        }
+
+        if (effect != null) gc.setEffect(null);
+        if (opacity < 1.0) gc.setGlobalAlpha(1.0);
+    }
+
+    /** save() + scale/rotate around the center of the box, as JavaFX does for a node. */
+    private void beginTransform(Node node, double x, double y, double w, double h) {
+        gc.save();
+        gc.translate(x + w * 0.5, y + h * 0.5);
+        if (node.getRotate() != 0.0) gc.rotate(node.getRotate());
+        gc.scale(node.getScaleX(), node.getScaleY());
+    }
+}
@@ -0,0 +1,68 @@
+package game.render;
+
+import javafx.scene.Node;
+
+/**
+ * Draw order of world nodes for {@link CanvasRenderer}: lower layers first, then by texture.
+ * - Tagged where the object is registered (CollisionManager.add*, Player); untagged nodes
+ *   are DECOR. Parallax children are always BACKGROUND.
+ * - The node-based path ignores the tag and keeps the order of the children.
+ * - tagStatic() also marks a node that never moves far and never leaves the world
+ *   (platforms, obstacles, springs, loops, level rings, gate): {@link ViewportCuller}
+ *   may regroup it into a chunk and detach it while off screen.
+ * - tagBaked() is tagStatic() for nodes whose look never changes either (platforms,
+ *   obstacles, loop, gate): ViewportCuller.bake() renders them into chunk images.
+ */
+public final class RenderLayer {
+
+    public static final int BACKGROUND = 0;
+    public static final int TERRAIN    = 1; // piattaforme, ostacoli
+    public static final int DECOR      = 2; // molle, loop, gate, tutto ciò che non è marcato
+    public static final int PICKUP     = 3; // anelli, scudi da raccogliere
+    public static final int ENEMY      = 4;
+    public static final int PROJECTILE = 5;
+    public static final int PLAYER     = 6;
+    public static final int EFFECT     = 7; // scudo attivo
+    public static final int COUNT      = 8;
+
+    private static final Object KEY = new Object();
+    private static final Object STATIC_KEY = new Object();
+    private static final Object BAKE_KEY = new Object();
+
+    private RenderLayer() {}
+
+    /** Marks the layer of a node (any thread, before the node is attached). */
+    public static void tag(Node node, int layer) {
+        if (node != null) node.getProperties().put(KEY, layer);
+    }
+
+    /** Like tag(), and the node may be culled in chunks. */
+    public static void tagStatic(Node node, int layer) {
+        if (node == null) return;
+        node.getProperties().put(KEY, layer);
+        node.getProperties().put(STATIC_KEY, Boolean.TRUE);
+    }
+
+    /** Like tagStatic(), and the node may be baked into a chunk image. */
+    public static void tagBaked(Node node, int layer) {
+        if (node == null) return;
+        tagStatic(node, layer);
+        node.getProperties().put(BAKE_KEY, Boolean.TRUE);
+    }
+
+    /** Layer of a node, or {@code fallback} if it was never tagged. */
+    public static int of(Node node, int fallback) {
+        if (!node.hasProperties()) return fallback;
+        return (node.getProperties().get(KEY) instanceof Integer l) ? l : fallback;
+    }
+
+    public static int of(Node node) { return of(node, DECOR); }
+
+    public static boolean isStatic(Node node) {
+        return node.hasProperties() && node.getProperties().get(STATIC_KEY) == Boolean.TRUE;
+    }
+
+    public static boolean isBaked(Node node) {
+        return node.hasProperties() && node.getProperties().get(BAKE_KEY) == Boolean.TRUE;
+    }
+}
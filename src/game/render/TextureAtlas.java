@@ -0,0 +1,176 @@
+package game.render;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+import game.util.ResourceUtil;
+
+/**
+ * Sprite lookup backed by the atlas pages packed at build time ({@link AtlasPacker},
+ * Gradle task packAtlas): many sprites share one texture and differ only by viewport.
+ * - region(path): path relative to assets/images (e.g. "world/ring.gif"). If the atlas is
+ *   not on the classpath (run from sources without Gradle) or does not list the path, the
+ *   single file is loaded as before: same Region type, whole image, no viewport.
+ * - Animated GIFs are stored frame by frame; advance(now) moves every animated region to
+ *   its current frame and the {@link AtlasSprite}s bound to it follow.
+ * - Headless: no images, region() returns null as ResourceUtil.loadImage does.
+ */
+public final class TextureAtlas {
+
+    static final String INDEX_FILE = "atlas.properties";
+    private static final String ATLAS_DIR = "/game/assets/atlas/";
+    private static final String INDEX = ATLAS_DIR + INDEX_FILE;
+    private static final String IMAGES_DIR = "file:src/game/assets/images/";
+
+    /** A sprite: the texture plus the viewport of each frame (null viewport = whole image). */
+    public static final class Region {
+        private final Image image;
+        private final Rectangle2D[] frames;
+        private final long[] frameEnds; // fine di ogni frame nel ciclo (ns), solo se animata
+        private final ObjectProperty<Rectangle2D> viewport;
+        private int current = 0;
+
+        Region(Image image, Rectangle2D[] frames, long[] frameEnds) {
+            this.image = image;
+            this.frames = frames;
+            this.frameEnds = frameEnds;
+            this.viewport = new SimpleObjectProperty<>(frames[0]);
+        }
+
+        public Image getImage() { return image; }
+        public boolean isAnimated() { return frameEnds != null; }
+        /** Viewport of the current frame (null = whole image). */
+        public Rectangle2D getViewport() { return viewport.get(); }
+        ObjectProperty<Rectangle2D> viewportProperty() { return viewport; }
+
+        public double getWidth() { return frames[0] != null ? frames[0].getWidth() : image.getWidth(); }
+        public double getHeight() { return frames[0] != null ? frames[0].getHeight() : image.getHeight(); }
+
+        /** FX thread (AtlasSprite binds on the FX thread too, see activate()). */
+        void advance(long now) {
+            long t = now % frameEnds[frameEnds.length - 1];
+            int f = 0;
+            while (t >= frameEnds[f]) f++;
+            if (f != current) {
+                current = f;
+                viewport.set(frames[f]);
+            }
+        }
+    }
+
+    private static final Map<String, Region> REGIONS = new ConcurrentHashMap<>();
+    private static final List<Region> ANIMATED = new ArrayList<>();
+    private static volatile Properties index; // null = non ancora letto
+    private static Image[] pages;
+
+    private TextureAtlas() {}
+
+    /** Region for an image under assets/images, or null (headless, missing file). Any thread. */
+    public static Region region(String path) {
+        if (ResourceUtil.isHeadless()) return null;
+        Region r = REGIONS.get(path);
+        if (r != null) return r;
+        synchronized (TextureAtlas.class) { // prebuild e thread FX: una sola Region per path
+            r = REGIONS.get(path);
+            if (r != null) return r;
+            r = fromAtlas(path);
+            if (r == null) {
+                Image img = ResourceUtil.loadImage(IMAGES_DIR + path);
+                if (img == null || img.isError()) return null;
+                r = new Region(img, new Rectangle2D[]{ null }, null);
+            }
+            REGIONS.put(path, r);
+            return r;
+        }
+    }
+
+    /** Moves the animated regions to the frame for {@code now} (System.nanoTime()). FX thread, once per frame. */
+    public static void advance(long now) {
+        AtlasSprite.bindPending();
+        synchronized (ANIMATED) {
+            for (int i = 0, n = ANIMATED.size(); i < n; i++) ANIMATED.get(i).advance(now);
+        }
+    }
+
+    /** Atlas pages loaded so far (0 = atlas missing or unused). */
+    public static synchronized int getPageCount() {
+        if (pages == null) return 0;
+        int n = 0;
+        for (Image p : pages) if (p != null) n++;
+        return n;
+    }
+
+    private static Region fromAtlas(String path) {
+        Properties idx = index();
+        String entry = idx.getProperty(path);
+        if (entry == null) return null;
+        try {
+            String[] parts = entry.split(";");
+            Image page = page(Integer.parseInt(parts[0]));
+            if (page == null || page.isError()) return null;
+            int n = parts.length - 1;
+            Rectangle2D[] frames = new Rectangle2D[n];
+            long[] ends = new long[n];
+            long t = 0;
+            for (int i = 0; i < n; i++) {
+                String[] v = parts[i + 1].split(",");
+                frames[i] = new Rectangle2D(Double.parseDouble(v[0]), Double.parseDouble(v[1]),
+                                            Double.parseDouble(v[2]), Double.parseDouble(v[3]));
+                t += Long.parseLong(v[4]) * 1_000_000L;
+                ends[i] = t;
+            }
+            Region r = new Region(page, frames, (n > 1 && t > 0) ? ends : null);
+            if (r.frameEnds != null) {
+                synchronized (ANIMATED) { ANIMATED.add(r); }
+            } else if (n > 1) {
+                return new Region(page, new Rectangle2D[]{ frames[0] }, null);
+            }
+            return r;
+        } catch (Throwable t) {
+            System.err.println("[Atlas] bad entry " + path + ": " + t);
+            return null;
+        }
+    }
+
+    private static Properties index() {
+        Properties idx = index;
+        if (idx != null) return idx;
+        synchronized (TextureAtlas.class) {
+            if (index != null) return index;
+            idx = new Properties();
+            URL u = TextureAtlas.class.getResource(INDEX);
+            if (u != null) {
+                try (InputStream in = u.openStream()) {
+                    idx.load(in);
+                    pages = new Image[Integer.parseInt(idx.getProperty("pages", "0"))];
+                } catch (Throwable t) {
+                    System.err.println("[Atlas] index not readable: " + t);
+                    idx = new Properties();
+                }
+            }
+            index = idx;
+            return idx;
+        }
+    }
+
+    private static synchronized Image page(int i) throws Exception {
+        if (pages == null || i < 0 || i >= pages.length) return null;
+        if (pages[i] == null) {
+            // risolta dal classloader come l'indice: va anche dentro il jar (URI jar: opaco, resolve() non vale)
+            URL u = TextureAtlas.class.getResource(ATLAS_DIR + "atlas" + i + ".png");
+            if (u == null) return null;
+            pages[i] = ResourceUtil.loadImage(u.toExternalForm());
+        }
+        return pages[i];
+    }
+}
@@ -0,0 +1,220 @@
+package game.render;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import game.util.Quality;
+
+/**
+ * Camera-driven culling for the world group (node path; the canvas path gets fewer nodes
+ * to walk too). The parallax needs none: it is a few wrapping layers (game.world.Parallax).
+ * - build(): the static world nodes ({@link RenderLayer#tagStatic}) are moved into column
+ *   chunks of CHUNK_WIDTH px, one Group each, at the bottom of the world (same relative
+ *   order as before). Everything else (player, enemies, projectiles, pickups, moving
+ *   platforms) stays a direct child and is never culled: it moves or leaves the scene by itself.
+ * - bake() (optional, FX thread): the nodes tagged with {@link RenderLayer#tagBaked} are
+ *   rendered into CHUNK_WIDTH x CHUNK_WIDTH tiles, cropped to their content, and replaced by
+ *   one ImageView per tile. Collision never looked at these nodes (it uses the Hitboxes).
+ * - update(): chunks outside [camX - MARGIN, camX + viewW + MARGIN] are detached in bulk
+ *   and reattached as they approach; nothing is done while the set does not change.
+ *   Quality.applyTo(world) only reaches attached chunks, so a chunk reattached after a
+ *   quality change gets the current level then.
+ * - Nodes keep their coordinates (chunk Groups are at 0,0): the snapshot, events and reset
+ *   write into them as before, attached or not.
+ */
+public final class ViewportCuller {
+
+    public static final double CHUNK_WIDTH = 512.0;
+    public static final double MARGIN = 256.0; // > escursione del follower del loop e degli sprite fermi
+
+    private static final class Chunk {
+        final int column;
+        final Group group = new Group();
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        boolean attached = false;
+        int quality = -1; // livello di Quality applicato ai nodi del chunk
+        Chunk(int column) { this.column = column; }
+
+        void include(double min, double max) {
+            minX = Math.min(minX, min);
+            maxX = Math.max(maxX, max); // una piattaforma lunga allarga il suo chunk
+        }
+    }
+
+    private final Group world;
+    private final List<Chunk> chunks = new ArrayList<>(); // per colonna crescente
+
+    private int visibleNodes, culledNodes, visibleChunks;
+    private int bakedNodes, bakedTiles;
+
+    public ViewportCuller(Group world) {
+        this.world = world;
+    }
+
+    /** Regroups the static world nodes into chunks (once, before the first update). FX thread or not yet shown. */
+    public void build() {
+        List<Node> children = world.getChildren();
+        List<Node> moved = new ArrayList<>();
+        for (Node n : children) {
+            if (RenderLayer.isStatic(n)) moved.add(n);
+        }
+        children.removeAll(moved);
+        for (Node n : moved) {
+            Bounds b = n.getBoundsInParent();
+            Chunk c = chunk(column(b.getMinX()));
+            c.include(b.getMinX(), b.getMaxX());
+            c.group.getChildren().add(n);
+        }
+    }
+
+    /**
+     * Renders the baked nodes into tile images and swaps them in (FX thread, after build(),
+     * before the level is shown). Returns the tiles created. If a snapshot fails the nodes
+     * go back to their chunks and the exception is rethrown.
+     */
+    public int bake() {
+        List<Node> baked = new ArrayList<>();
+        List<Group> owners = new ArrayList<>();
+        for (Chunk c : chunks) {
+            for (Node n : c.group.getChildren()) {
+                if (RenderLayer.isBaked(n)) { baked.add(n); owners.add(c.group); }
+            }
+        }
+        if (baked.isEmpty()) return 0;
+        Group bakeRoot = new Group();
+        bakeRoot.getChildren().addAll(baked); // li toglie dai chunk
+
+        // contenuto di ogni tile (colonna, riga), ritagliato sul tile
+        Map<Long, double[]> tiles = new HashMap<>();
+        for (Node n : bakeRoot.getChildren()) {
+            Bounds b = n.getBoundsInParent();
+            if (b.isEmpty()) continue;
+            for (int cx = column(b.getMinX()); cx <= column(b.getMaxX() - 1e-6); cx++) {
+                for (int cy = row(b.getMinY()); cy <= row(b.getMaxY() - 1e-6); cy++) {
+                    double tx = cx * CHUNK_WIDTH, ty = cy * CHUNK_WIDTH;
+                    double[] r = tiles.computeIfAbsent(((long) cx << 32) | (cy & 0xFFFFFFFFL),
+                            k -> new double[]{ Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                                               Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY });
+                    r[0] = Math.min(r[0], Math.max(tx, b.getMinX()));
+                    r[1] = Math.min(r[1], Math.max(ty, b.getMinY()));
+                    r[2] = Math.max(r[2], Math.min(tx + CHUNK_WIDTH, b.getMaxX()));
+                    r[3] = Math.max(r[3], Math.min(ty + CHUNK_WIDTH, b.getMaxY()));
+                }
+            }
+        }
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        List<ImageView> out = new ArrayList<>();
+        List<Integer> columns = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, double[]> e : tiles.entrySet()) {
+                double[] r = e.getValue();
+                double x = Math.floor(r[0]), y = Math.floor(r[1]);
+                int w = (int) Math.ceil(r[2] - x), h = (int) Math.ceil(r[3] - y);
+                if (w <= 0 || h <= 0) continue;
+                params.setViewport(new Rectangle2D(x, y, w, h));
+                ImageView tile = new ImageView(bakeRoot.snapshot(params, new WritableImage(w, h)));
+                tile.setTranslateX(x);
+                tile.setTranslateY(y);
+                tile.setSmooth(false); // 1:1 con i pixel renderizzati
+                RenderLayer.tag(tile, RenderLayer.TERRAIN);
+                out.add(tile);
+                columns.add((int) (e.getKey() >> 32));
+            }
+        } catch (RuntimeException ex) {
+            for (int i = 0; i < baked.size(); i++) owners.get(i).getChildren().add(baked.get(i));
+            throw ex;
+        }
+        for (int i = 0; i < out.size(); i++) {
+            ImageView tile = out.get(i);
+            Chunk c = chunk(columns.get(i));
+            c.include(tile.getTranslateX(), tile.getTranslateX() + tile.getImage().getWidth());
+            c.group.getChildren().add(0, tile); // sotto ad anelli, molle, follower
+        }
+        bakedNodes = baked.size();
+        bakedTiles = out.size();
+        bakeRoot.getChildren().clear();
+        chunks.removeIf(c -> c.group.getChildren().isEmpty());
+        return out.size();
+    }
+
+    /** One frame, FX thread, after the camera ({@code camX} = world scroll). */
+    public void update(double camX, double viewW) {
+        double min = camX - MARGIN, max = camX + viewW + MARGIN;
+        int visible = 0, culled = 0, slot = 0;
+        visibleChunks = 0;
+        List<Node> children = world.getChildren();
+        for (int i = 0, n = chunks.size(); i < n; i++) {
+            Chunk c = chunks.get(i);
+            boolean in = c.maxX >= min && c.minX <= max;
+            int size = c.group.getChildren().size();
+            if (in) {
+                if (!c.attached) {
+                    if (c.quality != Quality.get()) { // cambiata mentre era staccato
+                        Quality.applyTo(c.group);
+                        c.quality = Quality.get();
+                    }
+                    children.add(slot, c.group); // sotto ai nodi dinamici, in ordine di chunk
+                    c.attached = true;
+                }
+                slot++;
+                visibleChunks++;
+                visible += size;
+            } else {
+                if (c.attached) {
+                    children.remove(c.group);
+                    c.attached = false;
+                }
+                culled += size;
+            }
+        }
+        visibleNodes = visible;
+        culledNodes = culled;
+    }
+
+    /** Static nodes shown after the last update. */
+    public int getVisibleNodes() { return visibleNodes; }
+
+    /** Static nodes culled by the last update. */
+    public int getCulledNodes() { return culledNodes; }
+
+    public int getVisibleChunks() { return visibleChunks; }
+    public int getChunkCount() { return chunks.size(); }
+
+    /** Nodes replaced by tiles, and tiles created, by bake(). */
+    public int getBakedNodes() { return bakedNodes; }
+    public int getBakedTiles() { return bakedTiles; }
+
+    private static int column(double x) {
+        return Math.max(0, (int) Math.floor(x / CHUNK_WIDTH));
+    }
+
+    private static int row(double y) {
+        return (int) Math.floor(y / CHUNK_WIDTH);
+    }
+
+    /** Chunk of a column, created in order if missing. */
+    private Chunk chunk(int column) {
+        int lo = 0, hi = chunks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chunks.get(mid).column < column) lo = mid + 1; else hi = mid;
+        }
+        if (lo < chunks.size() && chunks.get(lo).column == column) return chunks.get(lo);
+        Chunk c = new Chunk(column);
+        chunks.add(lo, c);
+        return c;
+    }
+}
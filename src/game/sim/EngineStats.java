@@ -0,0 +1,144 @@
+package game.sim;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import javafx.scene.Group;
+
+import game.audio.SoundManager;
+import game.util.Quality;
+import game.util.ResourceUtil;
+import game.world.CollisionManager;
+
+/**
+ * Engine metrics exposed over JMX (see {@link EngineStatsMXBean}).
+ * - One instance, registered once with register(); GameApp attaches the running level
+ *   (simulation loop, collision manager, world group) and detaches it at the end.
+ * - The FX thread calls onFrame() every frame: FPS, ticks/s and the world node count are
+ *   sampled there once per second into volatile fields, so JMX reads never touch the
+ *   scene graph. Entity counts are list sizes read directly (a racy int read is fine here).
+ * - Cumulative counters are never written by JMX: resetStats() only moves the baselines.
+ */
+public final class EngineStats implements EngineStatsMXBean {
+
+    private static final EngineStats INSTANCE = new EngineStats();
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private volatile SimulationLoop sim;
+    private volatile CollisionManager cm;
+    private volatile Group world;
+
+    // thread FX
+    private long windowStart = -1;
+    private long windowFrames, windowSteps;
+    private volatile long frames;
+
+    private volatile double fps, ticksPerSecond;
+    private volatile int worldNodes;
+    private volatile int visibleNodes, culledNodes;
+    private volatile int bakedNodes, bakedTiles;
+
+    // baseline di resetStats()
+    private volatile long frameBase, tickBase, testBase;
+
+    private EngineStats() {}
+
+    public static EngineStats get() { return INSTANCE; }
+
+    /** Registers the MBean on the platform server (idempotent, errors are only logged). */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("game:type=EngineStats");
+            if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+        } catch (Throwable t) {
+            System.err.println("[EngineStats] JMX non disponibile: " + t);
+        }
+    }
+
+    public void attach(SimulationLoop sim, CollisionManager cm, Group world) {
+        this.sim = sim;
+        this.cm = cm;
+        this.world = world;
+        windowStart = -1;
+        tickBase = 0;   // contatori di simulazione e collisioni: per livello
+        testBase = 0;
+    }
+
+    public void detach() {
+        sim = null;
+        cm = null;
+        world = null;
+        fps = 0;
+        ticksPerSecond = 0;
+        worldNodes = 0;
+        visibleNodes = 0;
+        culledNodes = 0;
+        bakedNodes = 0;
+        bakedTiles = 0;
+    }
+
+    /** Culling result of the last frame (FX thread, see ViewportCuller). */
+    public void onCull(int visible, int culled) {
+        visibleNodes = visible;
+        culledNodes = culled;
+    }
+
+    /** Bake result of the attached level (see ViewportCuller.bake). */
+    public void onBake(int nodes, int tiles) {
+        bakedNodes = nodes;
+        bakedTiles = tiles;
+    }
+
+    /** Once per frame on the FX thread (now = System.nanoTime()). */
+    public void onFrame(long now) {
+        frames++;
+        SimulationLoop s = sim;
+        if (windowStart < 0) {
+            windowStart = now;
+            windowFrames = frames;
+            windowSteps = (s != null) ? s.getSteps() : 0;
+            return;
+        }
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS) return;
+        long steps = (s != null) ? s.getSteps() : 0;
+        fps = (frames - windowFrames) * 1e9 / elapsed;
+        ticksPerSecond = (steps - windowSteps) * 1e9 / elapsed;
+        Group w = world;
+        worldNodes = (w != null) ? w.getChildren().size() : 0;
+        windowStart = now;
+        windowFrames = frames;
+        windowSteps = steps;
+    }
+
+    @Override public double getFps() { return fps; }
+    @Override public double getSimTicksPerSecond() { return ticksPerSecond; }
+
+    @Override public int getEnemies() { CollisionManager c = cm; return (c != null) ? c.getEnemyCount() : 0; }
+    @Override public int getProjectiles() { CollisionManager c = cm; return (c != null) ? c.getProjectileCount() : 0; }
+    @Override public int getRings() { CollisionManager c = cm; return (c != null) ? c.getRingCount() : 0; }
+    @Override public int getWorldNodes() { return worldNodes; }
+    @Override public int getVisibleNodes() { return visibleNodes; }
+    @Override public int getCulledNodes() { return culledNodes; }
+    @Override public int getBakedNodes() { return bakedNodes; }
+    @Override public int getBakedTiles() { return bakedTiles; }
+    @Override public String getQuality() { return Quality.name(Quality.get()); }
+
+    @Override public long getFrames() { return frames - frameBase; }
+    @Override public long getSimTicks() { SimulationLoop s = sim; return (s != null ? s.getSteps() : 0) - tickBase; }
+    @Override public long getCollisionTests() { CollisionManager c = cm; return (c != null ? c.getCollisionTests() : 0) - testBase; }
+
+    @Override public int getAudioCacheSize() { return SoundManager.getCacheSize(); }
+    @Override public int getImageCacheSize() { return ResourceUtil.getImageCacheSize(); }
+
+    @Override
+    public void resetStats() {
+        SimulationLoop s = sim;
+        CollisionManager c = cm;
+        frameBase = frames;
+        tickBase = (s != null) ? s.getSteps() : 0;
+        testBase = (c != null) ? c.getCollisionTests() : 0;
+    }
+}
@@ -0,0 +1,33 @@
+package game.sim;
+
+/**
+ * Live engine metrics for JConsole/VisualVM (ObjectName "game:type=EngineStats").
+ * Rates are measured over the last second; cumulative counters restart at resetStats().
+ */
+public interface EngineStatsMXBean {
+    double getFps();
+    double getSimTicksPerSecond();
+
+    int getEnemies();
+    int getProjectiles();
+    int getRings();
+    int getWorldNodes();
+    /** Static world nodes in view / culled in the last frame. */
+    int getVisibleNodes();
+    int getCulledNodes();
+    /** Static nodes baked into tile images at level start, and the tiles made (0 if not baked). */
+    int getBakedNodes();
+    int getBakedTiles();
+    /** Current rendering quality (LOW/MEDIUM/HIGH), set by the quality governor. */
+    String getQuality();
+
+    long getFrames();
+    long getSimTicks();
+    long getCollisionTests();
+
+    int getAudioCacheSize();
+    int getImageCacheSize();
+
+    /** Zeroes frames, sim ticks and collision tests (moves the baselines, allocates nothing). */
+    void resetStats();
+}
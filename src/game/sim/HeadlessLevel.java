@@ -0,0 +1,134 @@
+package game.sim;
+
+import java.util.Random;
+
+import javafx.scene.Group;
+import javafx.scene.input.KeyCode;
+
+import game.Constants;
+import game.entities.Player;
+import game.levels.Level;
+import game.levels.LevelRules;
+import game.util.ResourceUtil;
+import game.world.CollisionManager;
+import game.world.Parallax;
+import game.world.elements.FinishGate;
+
+/**
+ * A level built and stepped without a window.
+ * - Switches ResourceUtil to headless: no images or audio are loaded and no display is
+ *   needed. Groups and nodes are still created but never shown; the Node class still
+ *   initializes the JavaFX toolkit, pinned to the software pipeline (no GPU libraries).
+ * - Deterministic: the player's random source is seeded (SEED, or create(index, seed))
+ *   and reseeded by reset(), so the same input gives the same run.
+ * - Same entities, CollisionManager, LevelRules and fixed step as the game: a tick here
+ *   is a tick in GameApp. Activity window defaults to the whole level.
+ * - Usable from tests, benchmarks and batch tools:
+ *   {@code java -cp ... game.sim.HeadlessLevel [level] [ticks]} runs the level holding
+ *   RIGHT and prints the outcome and the ticks per second.
+ */
+public final class HeadlessLevel {
+
+    public static final long SEED = 1L;
+
+    private final Level level;
+    private final Group world;
+    private final Player player;
+    private final CollisionManager cm;
+    private final LevelRules rules;
+    private final SimulationLoop loop;
+    private final long seed;
+    private long ticks = 0;
+
+    private HeadlessLevel(Level level, Group world, Player player, CollisionManager cm, LevelRules rules, long seed) {
+        this.seed = seed;
+        this.level = level;
+        this.world = world;
+        this.player = player;
+        this.cm = cm;
+        this.rules = rules;
+        this.loop = new SimulationLoop(player, cm, rules);
+    }
+
+    /** Builds level {@code index} (1..3) with the player on the spawn point. */
+    public static HeadlessLevel create(int index) {
+        return create(index, SEED);
+    }
+
+    /** Same as create(index), with the seed of the player's random source. */
+    public static HeadlessLevel create(int index, long seed) {
+        ResourceUtil.setHeadless(true);
+        Group parallax = new Group();
+        Group world = new Group();
+
+        Player player = new Player(world, 60, 600);
+        CollisionManager cm = new CollisionManager(world, player);
+        player.setDamageContext(cm, world);
+        player.setRandom(new Random(seed));
+
+        Level level = Level.create(index);
+        Level.build(level, index, new Parallax(parallax), world, player, cm);
+        FinishGate gate = new FinishGate(world, level.getFinishX(), level.getGroundY());
+
+        LevelRules rules = new LevelRules(index, level, player, gate);
+        rules.placeAtSpawn();
+        return new HeadlessLevel(level, world, player, cm, rules, seed);
+    }
+
+    /** Runs up to {@code maxTicks} fixed steps; returns how many ran (fewer if the level ended). */
+    public int run(int maxTicks) {
+        int n = loop.runSteps(maxTicks);
+        ticks += n;
+        return n;
+    }
+
+    /** Back to the state right after create(), same objects (see LevelSession.restart). */
+    public void reset() {
+        loop.reset();
+        cm.reset();
+        player.reset();
+        player.setRandom(new Random(seed));
+        rules.reset();
+        rules.placeAtSpawn();
+        ticks = 0;
+    }
+
+    /** Input as from the keyboard, read at the start of the next tick. */
+    public void press(KeyCode code)   { loop.postKey(code, true); }
+    public void release(KeyCode code) { loop.postKey(code, false); }
+
+    public boolean isFinished() { return loop.isFinished(); }
+    /** RenderSnapshot.OUTCOME_* */
+    public int getOutcome() { return rules.getOutcome(); }
+    public long getTicks() { return ticks; }
+    public double getSimulatedSeconds() { return ticks * Constants.SIM_DT; }
+
+    public Level getLevel() { return level; }
+    /** The world group, never shown (e.g. to add entities in a test). */
+    public Group getWorld() { return world; }
+    public Player getPlayer() { return player; }
+    public CollisionManager getCollisionManager() { return cm; }
+    public LevelRules getRules() { return rules; }
+    public SimulationLoop getLoop() { return loop; }
+
+    public static void main(String[] args) {
+        int index = (args.length > 0) ? Integer.parseInt(args[0]) : 1;
+        int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : 120_000;
+
+        HeadlessLevel h = create(index);
+        h.press(KeyCode.RIGHT);
+        long t0 = System.nanoTime();
+        h.run(maxTicks);
+        double secs = (System.nanoTime() - t0) / 1_000_000_000.0;
+
+        String outcome = switch (h.getOutcome()) {
+            case RenderSnapshot.OUTCOME_GAME_OVER -> "game over";
+            case RenderSnapshot.OUTCOME_LEVEL_COMPLETE -> "level complete";
+            default -> "running";
+        };
+        System.out.printf("Level %d: %s after %d ticks (%.1f s simulated), x=%.0f, lives=%d%n",
+                index, outcome, h.getTicks(), h.getSimulatedSeconds(), h.getPlayer().getX(), h.getRules().getLives());
+        System.out.printf("%.0f ticks/s (%.1fx real time)%n",
+                h.getTicks() / secs, h.getSimulatedSeconds() / secs);
+    }
+}
@@ -0,0 +1,160 @@
+package game.sim;
+
+import java.util.Arrays;
+
+import javafx.scene.Node;
+
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionEvents;
+import game.world.Hitbox;
+
+/**
+ * What the FX thread needs to draw one simulation step.
+ * - Filled on the simulation thread (CollisionManager.capture), then handed over whole
+ *   by SimulationLoop: once published nobody writes it until the FX thread gives it back.
+ * - Sprite entries are parallel arrays reused between frames, so capturing does not
+ *   allocate in steady state. Each entry keeps the previous and the current position
+ *   and apply(alpha) interpolates between them.
+ * - Presentation events (sounds, attach/detach, animations) and HUD values travel with
+ *   it. If the FX thread did not see a snapshot before the next publish, the next capture
+ *   goes into that same snapshot and appends to its events (see {@link SnapshotExchange}):
+ *   nothing is lost and the step order is kept.
+ */
+public final class RenderSnapshot {
+
+    public static final int OUTCOME_NONE = 0;
+    public static final int OUTCOME_GAME_OVER = 1;
+    public static final int OUTCOME_LEVEL_COMPLETE = 2;
+
+    private static final byte KEEP = -1;
+
+    // --- sprite entries ---
+    private Node[] nodes = new Node[64];
+    private double[] prevX = new double[64], prevY = new double[64];
+    private double[] curX = new double[64], curY = new double[64];
+    private double[] scaleX = new double[64], rotate = new double[64], opacity = new double[64];
+    private TextureAtlas.Region[] regions = new TextureAtlas.Region[64];
+    private byte[] visible = new byte[64];
+    private int count = 0;
+
+    // --- eventi di presentazione (accumulati finché il thread FX non li consuma) ---
+    private final CollisionEvents events = new CollisionEvents(64);
+
+    // --- camera / HUD / esito ---
+    private double focusPrevX, focusX;
+    private int rings, lives;
+    private int bossHp = -1;
+    private String bossLabel;
+    private boolean bossDefeated;
+    private String message;
+    private boolean respawned;
+    private int outcome = OUTCOME_NONE;
+
+    // --- handoff ---
+    long seq = 0;
+    long simTimeNanos = 0;
+    boolean consumed = true;
+    boolean fresh = false;
+
+    /** Starts a new capture: entries are reset, unconsumed events/messages are kept. */
+    public void begin() {
+        Arrays.fill(nodes, 0, count, null);
+        Arrays.fill(regions, 0, count, null);
+        count = 0;
+        if (consumed) {
+            events.clear();
+            message = null;
+            respawned = false;
+            consumed = false;
+        }
+    }
+
+    /** Adds a node at the position of a hitbox (previous step to current step). */
+    public int add(Node node, Hitbox b) {
+        return add(node, b.getPrevX(), b.getPrevY(), b.getX(), b.getY());
+    }
+
+    public int add(Node node, double px, double py, double x, double y) {
+        if (count == nodes.length) grow();
+        int i = count++;
+        nodes[i] = node;
+        prevX[i] = px;
+        prevY[i] = py;
+        curX[i] = x;
+        curY[i] = y;
+        scaleX[i] = Double.NaN;
+        rotate[i] = Double.NaN;
+        opacity[i] = Double.NaN;
+        regions[i] = null;
+        visible[i] = KEEP;
+        return i;
+    }
+
+    // attributi opzionali (NaN / null = non toccare il nodo)
+    public void setScaleX(int i, double v) { scaleX[i] = v; }
+    public void setRotate(int i, double deg) { rotate[i] = deg; }
+    public void setOpacity(int i, double v) { opacity[i] = v; }
+    public void setRegion(int i, TextureAtlas.Region r) { regions[i] = r; }
+    public void setVisible(int i, boolean v) { visible[i] = (byte) (v ? 1 : 0); }
+
+    public int size() { return count; }
+    public CollisionEvents getEvents() { return events; }
+
+    public void setFocus(double prevX, double x) { focusPrevX = prevX; focusX = x; }
+    public double getFocusX(double alpha) { return focusPrevX + (focusX - focusPrevX) * alpha; }
+
+    public void setRings(int v) { rings = v; }
+    public int getRings() { return rings; }
+    public void setLives(int v) { lives = v; }
+    public int getLives() { return lives; }
+    public void setBoss(int hp, String label, boolean defeated) { bossHp = hp; bossLabel = label; bossDefeated = defeated; }
+    public int getBossHp() { return bossHp; }
+    public String getBossLabel() { return bossLabel; }
+    public boolean isBossDefeated() { return bossDefeated; }
+    public void setMessage(String m) { if (m != null) message = m; }
+    public String getMessage() { return message; }
+    public void markRespawned() { respawned = true; }
+    public boolean isRespawned() { return respawned; }
+    public void setOutcome(int o) { outcome = o; }
+    public int getOutcome() { return outcome; }
+
+    /** Sequence number of the capture (0 = nothing published yet). */
+    public long getSeq() { return seq; }
+    /** True the first time the FX thread gets this snapshot: dispatch its events/HUD only then. */
+    public boolean isFresh() { return fresh; }
+
+    /** Interpolation factor for "now": 0 = previous step, 1 = captured step. */
+    public double alphaAt(long nowNanos, double stepSeconds) {
+        double a = (nowNanos - simTimeNanos) / (stepSeconds * 1_000_000_000.0);
+        return a < 0 ? 0 : (a > 1 ? 1 : a);
+    }
+
+    /** Writes the entries into their nodes (FX thread). */
+    public void apply(double alpha) {
+        for (int i = 0; i < count; i++) {
+            Node n = nodes[i];
+            n.setTranslateX(prevX[i] + (curX[i] - prevX[i]) * alpha);
+            n.setTranslateY(prevY[i] + (curY[i] - prevY[i]) * alpha);
+            if (!Double.isNaN(scaleX[i])) n.setScaleX(scaleX[i]);
+            if (!Double.isNaN(rotate[i])) n.setRotate(rotate[i]);
+            if (!Double.isNaN(opacity[i])) n.setOpacity(opacity[i]);
+            if (visible[i] != KEEP) n.setVisible(visible[i] == 1);
+            if (regions[i] != null && n instanceof AtlasSprite as) as.setRegion(regions[i]);
+        }
+    }
+
+    private void grow() {
+        int n = nodes.length * 2;
+        nodes = Arrays.copyOf(nodes, n);
+        prevX = Arrays.copyOf(prevX, n);
+        prevY = Arrays.copyOf(prevY, n);
+        curX = Arrays.copyOf(curX, n);
+        curY = Arrays.copyOf(curY, n);
+        scaleX = Arrays.copyOf(scaleX, n);
+        rotate = Arrays.copyOf(rotate, n);
+        opacity = Arrays.copyOf(opacity, n);
+        regions = Arrays.copyOf(regions, n);
+        visible = Arrays.copyOf(visible, n);
+    }
+}
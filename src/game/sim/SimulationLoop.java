@@ -0,0 +1,294 @@
+package game.sim;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import javafx.scene.input.KeyCode;
+
+import game.Constants;
+import game.entities.Player;
+import game.jfr.CollisionPassEvent;
+import game.jfr.SimStepEvent;
+import game.util.AllocationMeter;
+import game.util.FrameProfiler;
+import game.world.CollisionManager;
+
+/**
+ * Fixed-step simulation (Player.tick + CollisionManager.update) decoupled from rendering.
+ * - start() runs it on a dedicated thread; advance(dt) steps it inline from the caller
+ *   (same code, used when the thread is disabled); runSteps(n) steps back to back with
+ *   no pacing and no snapshots (headless, see {@link HeadlessLevel}).
+ * - After each batch of steps the state is captured into a {@link RenderSnapshot} and
+ *   published through a lock-free {@link SnapshotExchange}: nobody waits on the other,
+ *   and events of snapshots the FX thread skipped are delivered in step order.
+ * - Input flows the other way through a lock-free queue drained at the start of each step.
+ * - setPaused(true) freezes the game (window unfocused or iconified): the thread parks
+ *   and advance() does nothing, so timers, enemies and damage stop with the frames.
+ * - Game rules that must run with the simulation (lives, respawn, finish) plug in as
+ *   {@link Rules} and are called on the simulation thread.
+ * - Each step is a JFR game.SimStep event and each collision pass a game.CollisionPass
+ *   event; when JFR is off the only cost is the isEnabled() check (nothing is allocated).
+ */
+public final class SimulationLoop {
+
+    /** Regole di livello eseguite sul thread di simulazione. */
+    public interface Rules {
+        /** Dopo ogni step. Ritorna false per fermare la simulazione (fine partita/livello). */
+        boolean afterStep();
+        /** Copia HUD ed esito nello snapshot. */
+        void capture(RenderSnapshot s);
+    }
+
+    private static final class KeyInput {
+        final KeyCode code;
+        final boolean pressed;
+        KeyInput(KeyCode code, boolean pressed) { this.code = code; this.pressed = pressed; }
+    }
+
+    private final Player player;
+    private final CollisionManager cm;
+    private final Rules rules;
+
+    private final ConcurrentLinkedQueue<KeyInput> input = new ConcurrentLinkedQueue<>();
+    private final SnapshotExchange exchange = new SnapshotExchange();
+    private volatile long steps = 0; // letto dalle statistiche (JMX)
+
+    // finestra di attività decisa dalla camera (thread FX)
+    private volatile double windowMinX = Double.NEGATIVE_INFINITY;
+    private volatile double windowMaxX = Double.POSITIVE_INFINITY;
+
+    private double accumulator = 0.0;
+    private long allocBudget = -1L;
+    private AllocationMeter allocMeter; // legato al thread che esegue gli step
+    private volatile long lastUpdateAlloc = -1L;
+    private int overBudget = 0;
+    private FrameProfiler profiler;     // opzionale: tempi di tick/update/capture
+    private boolean finished = false;
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    private Thread thread;
+
+    public SimulationLoop(Player player, CollisionManager cm, Rules rules) {
+        this.player = player;
+        this.cm = cm;
+        this.rules = rules;
+    }
+
+    // --- lato FX ---
+
+    public void postKey(KeyCode code, boolean pressed) {
+        input.offer(new KeyInput(code, pressed));
+    }
+
+    /**
+     * Measures the bytes allocated by each cm.update() and counts the steps over {@code bytes}
+     * (negative = off). Results go to the profiler (OVER_BUDGET) and the game.CollisionPass event.
+     */
+    public void setAllocBudget(long bytes) { allocBudget = bytes; }
+
+    /** Bytes allocated by the last cm.update() (-1 if the budget check is off or unsupported). */
+    public long getLastUpdateAlloc() { return lastUpdateAlloc; }
+
+    /** Steps whose cm.update() allocated more than the budget. */
+    public int getOverBudgetSteps() { return overBudget; }
+
+    /** Records TICK, UPDATE and CAPTURE timings and the entity counts (null = off). */
+    public void setProfiler(FrameProfiler profiler) { this.profiler = profiler; }
+
+    public void setActivityWindow(double minX, double maxX) {
+        windowMinX = minX;
+        windowMaxX = maxX;
+    }
+
+    /** Latest published snapshot; isFresh() tells whether it is new since the last call. */
+    public RenderSnapshot acquire() {
+        return exchange.acquire();
+    }
+
+    // --- passo di simulazione ---
+
+    /** One step + publish, synchronously (initial snap before the loop starts). */
+    public void prime() {
+        step();
+        publish(System.nanoTime());
+    }
+
+    /** Freezes/resumes stepping (any thread). Resuming does not replay the paused time. */
+    public void setPaused(boolean p) {
+        paused = p;
+        Thread t = thread;
+        if (!p && t != null) LockSupport.unpark(t);
+    }
+
+    public boolean isPaused() { return paused; }
+
+    /** Inline mode: advances by a frame time (clamped to MAX_DT) and publishes. */
+    public void advance(double dt) {
+        if (paused) return;
+        if (dt > Constants.MAX_DT) dt = Constants.MAX_DT;
+        if (stepFor(dt)) publish(System.nanoTime() - (long) (accumulator * 1_000_000_000.0));
+    }
+
+    /** Inline mode: fraction of a step left in the accumulator (interpolation factor). */
+    public double getAlpha() {
+        return accumulator / Constants.SIM_DT;
+    }
+
+    /**
+     * Batch mode: up to {@code maxSteps} steps as fast as possible, nothing published
+     * (presentation events are dropped). Returns the steps run: fewer if the rules ended the level.
+     */
+    public int runSteps(int maxSteps) {
+        int n = 0;
+        while (n < maxSteps && !finished) {
+            step();
+            cm.discardPresentation();
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Level restart in place: drops queued input, the accumulator, the finished flag and any
+     * unconsumed events. Call with the loop stopped (after stop(), before start()), then prime().
+     */
+    public void reset() {
+        input.clear();
+        overBudget = 0;
+        accumulator = 0.0;
+        finished = false;
+        exchange.reset();
+    }
+
+    /** Steps run since construction (any mode). */
+    public long getSteps() { return steps; }
+
+    /** True once Rules.afterStep() returned false. */
+    public boolean isFinished() { return finished; }
+
+    /** Dedicated thread mode. */
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        thread = null;
+        if (t != null && t != Thread.currentThread()) {
+            LockSupport.unpark(t);
+            try { t.join(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        }
+    }
+
+    private void run() {
+        allocMeter = null; // prime() può averlo creato sul thread FX
+        long last = System.nanoTime();
+        long stepNanos = (long) (Constants.SIM_DT * 1_000_000_000.0);
+        try {
+            while (running) {
+                if (paused) {
+                    LockSupport.park(this); // setPaused(false) e stop() svegliano
+                    last = System.nanoTime();
+                    continue;
+                }
+                long now = System.nanoTime();
+                double dt = Math.min((now - last) / 1_000_000_000.0, Constants.MAX_DT);
+                last = now;
+                if (stepFor(dt)) publish(now - (long) (accumulator * 1_000_000_000.0));
+                long wait = stepNanos - (long) (accumulator * 1_000_000_000.0);
+                if (wait > 0) LockSupport.parkNanos(wait);
+            }
+        } catch (Throwable t) {
+            System.err.println("[Simulation] stopped: " + t);
+            t.printStackTrace();
+            running = false;
+        }
+    }
+
+    private boolean stepFor(double dt) {
+        accumulator += dt;
+        boolean stepped = false;
+        while (accumulator >= Constants.SIM_DT) {
+            accumulator -= Constants.SIM_DT;
+            if (finished) continue;
+            step();
+            stepped = true;
+        }
+        return stepped;
+    }
+
+    private void step() {
+        SimStepEvent stepEvent = SimStepEvent.TYPE.isEnabled() ? new SimStepEvent() : null;
+        if (stepEvent != null) stepEvent.begin();
+        steps++;
+        KeyInput k;
+        while ((k = input.poll()) != null) {
+            if (k.pressed) player.onKeyPressed(k.code); else player.onKeyReleased(k.code);
+        }
+        cm.setActivityWindow(windowMinX, windowMaxX);
+        FrameProfiler prof = profiler;
+        long t0 = (prof != null) ? System.nanoTime() : 0L;
+        player.tick(Constants.SIM_DT);
+        long t1 = (prof != null) ? System.nanoTime() : 0L;
+        CollisionPassEvent pass = CollisionPassEvent.TYPE.isEnabled() ? new CollisionPassEvent() : null;
+        if (pass != null) pass.begin();
+        if (allocBudget >= 0) { // dopo l'evento JFR: si misura solo update()
+            if (allocMeter == null) allocMeter = new AllocationMeter();
+            allocMeter.begin();
+        }
+        cm.update(Constants.SIM_DT);
+        long bytes = -1L;
+        if (allocBudget >= 0 && allocMeter.isSupported()) {
+            bytes = allocMeter.end();
+            if (bytes > allocBudget) overBudget++;
+        }
+        lastUpdateAlloc = bytes;
+        if (pass != null) {
+            pass.end();
+            if (pass.shouldCommit()) {
+                pass.enemies = cm.getEnemyCount();
+                pass.projectiles = cm.getProjectileCount();
+                pass.rings = cm.getRingCount();
+                pass.events = cm.getQueuedEventCount();
+                pass.parallel = cm.isParallelUpdate();
+                pass.allocatedBytes = bytes;
+                pass.commit();
+            }
+        }
+        cm.applyEvents();
+        if (rules != null && !rules.afterStep()) finished = true;
+        if (prof != null) {
+            prof.record(FrameProfiler.TICK, t1 - t0);
+            prof.record(FrameProfiler.UPDATE, System.nanoTime() - t1);
+            prof.setCount(FrameProfiler.ENEMIES, cm.getEnemyCount());
+            prof.setCount(FrameProfiler.PROJECTILES, cm.getProjectileCount());
+            prof.setCount(FrameProfiler.RINGS, cm.getRingCount());
+            if (allocBudget >= 0) prof.setCount(FrameProfiler.OVER_BUDGET, overBudget);
+        }
+        if (stepEvent != null) {
+            stepEvent.end();
+            if (stepEvent.shouldCommit()) {
+                stepEvent.step = steps;
+                stepEvent.enemies = cm.getEnemyCount();
+                stepEvent.projectiles = cm.getProjectileCount();
+                stepEvent.rings = cm.getRingCount();
+                stepEvent.commit();
+            }
+        }
+    }
+
+    private void publish(long simTimeNanos) {
+        FrameProfiler prof = profiler;
+        long t0 = (prof != null) ? System.nanoTime() : 0L;
+        RenderSnapshot s = exchange.claim();
+        cm.capture(s);
+        if (rules != null) rules.capture(s);
+        if (prof != null) prof.record(FrameProfiler.CAPTURE, System.nanoTime() - t0);
+        exchange.publish(s, simTimeNanos);
+    }
+}
@@ -0,0 +1,65 @@
+package game.sim;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free handoff of {@link RenderSnapshot}s from the simulation thread to the FX thread
+ * (three buffers: back for the simulation, front for FX, one in the shared slot).
+ * - The simulation claims the slot before capturing. If the snapshot in it was never
+ *   acquired, the new step is captured into that same snapshot, after its events: events
+ *   reach the FX thread once each and in step order, however many publishes happen
+ *   between two acquire() calls.
+ * - While the simulation holds the slot it is empty and acquire() returns the current
+ *   front (not fresh); the next call gets the merged snapshot.
+ * - acquire() takes the slot with a compare-and-set, so it never races the claim.
+ */
+final class SnapshotExchange {
+
+    private final AtomicReference<RenderSnapshot> ready = new AtomicReference<>(new RenderSnapshot());
+    private RenderSnapshot back = new RenderSnapshot();   // thread di simulazione
+    private RenderSnapshot front = new RenderSnapshot();  // thread FX
+    private long seq = 0;
+
+    /** Simulation side: the snapshot to fill, already begun. Must be followed by publish(). */
+    RenderSnapshot claim() {
+        RenderSnapshot pending = ready.getAndSet(null);
+        RenderSnapshot s;
+        if (!pending.consumed) {
+            s = pending;          // mai visto dal thread FX: si accoda ai suoi eventi
+        } else {
+            s = back;
+            back = pending;       // già consumato dal thread FX: diventa il prossimo back
+        }
+        s.begin();
+        return s;
+    }
+
+    /** Simulation side: puts the filled snapshot back into the slot. */
+    void publish(RenderSnapshot s, long simTimeNanos) {
+        s.simTimeNanos = simTimeNanos;
+        s.seq = ++seq;
+        ready.set(s);
+    }
+
+    /** FX side: latest published snapshot; isFresh() tells whether it is new since the last call. */
+    RenderSnapshot acquire() {
+        front.fresh = false;
+        RenderSnapshot r = ready.get();
+        if (r != null && r.seq > front.seq) {
+            front.consumed = true;
+            if (ready.compareAndSet(r, front)) { // fallisce solo se la simulazione l'ha appena reclamato
+                front = r;
+                front.fresh = true;
+            }
+        }
+        return front;
+    }
+
+    /** Drops unconsumed events. Call with the simulation stopped. */
+    void reset() {
+        RenderSnapshot r = ready.get();
+        if (r != null) r.consumed = true;
+        back.consumed = true;
+        front.consumed = true;
+    }
+}
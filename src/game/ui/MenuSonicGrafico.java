@@ -24,13 +24,14 @@ public class MenuSonicGrafico {
     final Scene scene;
     final BorderPane root;
     final Listener listener;
+    private final StackPane center;
 
     public MenuSonicGrafico(Listener listener, double width, double height) {
         this.listener = listener;
         root = new BorderPane();
         scene = new Scene(root, width, height);
 
-        StackPane center = new StackPane(new ImageView(image("/assets/images/ui/background.gif")));
+        center = new StackPane(new ImageView(image("/assets/images/ui/background.gif")));
         root.setCenter(center);
 
         ImageView logo = new ImageView(image("/assets/images/ui/logo.png"));
@@ -83,10 +84,7 @@ public class MenuSonicGrafico {
         row.getChildren().addAll(l1, l2, l3);
 
         Button back = new Button("Back");
-        back.setOnAction(e -> {
-            MenuSonicGrafico fresh = new MenuSonicGrafico(listener, width, height);
-            scene.setRoot(fresh.root);
-        });
+        back.setOnAction(e -> root.setCenter(center));
 
         col.getChildren().addAll(title, row, back);
         pane.getChildren().add(col);
@@ -125,10 +123,7 @@ public class MenuSonicGrafico {
             v -> { SaveData.setSfx(v); SoundManager.setSfx(v); }));
 
         Button back = new Button("Back");
-        back.setOnAction(e -> {
-            MenuSonicGrafico fresh = new MenuSonicGrafico(listener, width, height);
-            scene.setRoot(fresh.root);
-        });
+        back.setOnAction(e -> root.setCenter(center));
 
         box.getChildren().add(back);
         pane.getChildren().add(box);
@@ -147,5 +142,14 @@ public class MenuSonicGrafico {
         return r;
     }
 
+    /**
+     * Riporta il menu (già costruito) alla schermata principale e riavvia la sua musica:
+     * GameApp lo tiene in cache invece di ricostruirlo a ogni ritorno dal livello.
+     */
+    public void reopen() {
+        root.setCenter(center);
+        SoundManager.playMusic("/assets/music/menu.mp3");
+    }
+
     public Scene getScene() { return scene; }
 }
@@ -0,0 +1,71 @@
+package game.ui;
+
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import game.util.FrameProfiler;
+import game.util.Quality;
+
+/**
+ * Overlay del FrameProfiler nel gruppo "ui": min/avg/p99 per fase (ms) e conteggi entità.
+ * - toggle() lo mostra/nasconde; nascosto non costa nulla.
+ * - Il testo viene ricostruito al massimo ogni REFRESH_NANOS, non a ogni frame.
+ */
+public class ProfilerOverlay {
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final FrameProfiler profiler;
+    private final Group node = new Group();
+    private final Rectangle panel = new Rectangle();
+    private final Text text = new Text();
+    private final long[] stats = new long[3];
+    private final StringBuilder sb = new StringBuilder(512);
+    private long lastRefresh = 0;
+
+    public ProfilerOverlay(Group ui, FrameProfiler profiler, double x, double y) {
+        this.profiler = profiler;
+        text.setFont(Font.font("Monospaced", 12));
+        text.setFill(Color.WHITE);
+        text.setTranslateX(8);
+        text.setTranslateY(16);
+        panel.setFill(Color.color(0, 0, 0, 0.6));
+        node.getChildren().addAll(panel, text);
+        node.setTranslateX(x);
+        node.setTranslateY(y);
+        node.setVisible(false);
+        ui.getChildren().add(node);
+    }
+
+    public void toggle() {
+        node.setVisible(!node.isVisible());
+        lastRefresh = 0;
+    }
+
+    public boolean isVisible() { return node.isVisible(); }
+
+    /** Da chiamare a ogni frame (thread FX). */
+    public void update(long now) {
+        if (!node.isVisible() || now - lastRefresh < REFRESH_NANOS) return;
+        lastRefresh = now;
+
+        sb.setLength(0);
+        sb.append(String.format("%-8s %7s %7s %7s%n", "phase", "min", "avg", "p99"));
+        for (int p = 0; p < FrameProfiler.PHASE_COUNT; p++) {
+            if (!profiler.stats(p, stats)) continue;
+            sb.append(String.format("%-8s %7.3f %7.3f %7.3f%n", FrameProfiler.phaseName(p),
+                    stats[0] / 1e6, stats[1] / 1e6, stats[2] / 1e6));
+        }
+        for (int k = 0; k < FrameProfiler.COUNT_KINDS; k++) {
+            sb.append(String.format("%-12s %d%n", FrameProfiler.countName(k), profiler.getCount(k)));
+        }
+        sb.append(String.format("%-12s %s%n", "quality", Quality.name(Quality.get())));
+        sb.append("F3 hide  F4 csv");
+        text.setText(sb.toString());
+        panel.setWidth(text.getLayoutBounds().getWidth() + 16);
+        panel.setHeight(text.getLayoutBounds().getHeight() + 12);
+    }
+}
@@ -0,0 +1,41 @@
+package game.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by the current thread between begin() and end().
+ * - Uses com.sun.management.ThreadMXBean (HotSpot/OpenJDK); on other VMs
+ *   isSupported() is false and end() always returns 0.
+ * - Meant for budget checks around hot loops (e.g. CollisionManager.update).
+ */
+public final class AllocationMeter {
+
+    private final com.sun.management.ThreadMXBean bean;
+    private final long threadId;
+    private long start;
+
+    public AllocationMeter() {
+        com.sun.management.ThreadMXBean b = null;
+        try {
+            java.lang.management.ThreadMXBean tb = ManagementFactory.getThreadMXBean();
+            if (tb instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+                sun.setThreadAllocatedMemoryEnabled(true);
+                b = sun;
+            }
+        } catch (Throwable ignored) {}
+        this.bean = b;
+        this.threadId = Thread.currentThread().threadId();
+    }
+
+    public boolean isSupported() { return bean != null; }
+
+    public void begin() {
+        if (bean != null) start = bean.getThreadAllocatedBytes(threadId);
+    }
+
+    /** Bytes allocated since begin() by the thread that created the meter. */
+    public long end() {
+        if (bean == null) return 0L;
+        return bean.getThreadAllocatedBytes(threadId) - start;
+    }
+}
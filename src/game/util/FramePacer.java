@@ -0,0 +1,182 @@
+package game.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.stage.Stage;
+
+/**
+ * Frame clock that replaces AnimationTimer: a pacing thread waits for the next frame
+ * deadline and hands the frame to the FX thread with Platform.runLater.
+ * - Target rate: any fps, 0 = uncapped (next frame as soon as the previous one ran).
+ *   The scene is redrawn by the pulse JavaFX schedules after the frame touched it, so
+ *   the rendered rate follows ours; above the display rate it also needs vsync off
+ *   (-Dprism.vsync=false).
+ * - Throttled mode (stage unfocused or iconified, see bindTo) drops to a low rate and
+ *   waits by sleeping only (a spin in progress stops as soon as the mode changes).
+ *   A {@link ThrottleListener} hears the changes, e.g. to pause the simulation.
+ * - Waits are hybrid: park until shortly before the deadline, then spin. The spin margin
+ *   follows the oversleep measured on this machine, so we spin only as long as needed.
+ * - At most one frame is queued or running on the FX thread: if it is late, ticks are skipped
+ *   instead of piling up, and the schedule is not replayed in a burst.
+ */
+public final class FramePacer {
+
+    /** Frame callback, called on the FX thread with System.nanoTime(). */
+    public interface Frame {
+        void handle(long now);
+    }
+
+    /** Told when throttled mode turns on or off (on the thread that changed it, FX for bindTo). */
+    public interface ThrottleListener {
+        void throttled(boolean on);
+    }
+
+    private static final long MIN_SPIN_NANOS = 200_000L;
+    private static final long MAX_SPIN_NANOS = 2_000_000L;
+
+    private final Frame frame;
+    private final AtomicBoolean queued = new AtomicBoolean(false);
+    private final Runnable runFrame = this::runFrame;
+
+    private volatile int targetFps;
+    private volatile int throttledFps;
+    private volatile boolean throttled = false;
+    private volatile boolean running = false;
+    private volatile Thread thread;
+    private volatile ThrottleListener throttleListener;
+    private long spinNanos = 1_000_000L; // thread di pacing
+
+    private Stage stage;
+    private ChangeListener<Boolean> stageListener;
+
+    public FramePacer(Frame frame, int targetFps, int throttledFps) {
+        this.frame = frame;
+        this.targetFps = Math.max(0, targetFps);
+        this.throttledFps = Math.max(1, throttledFps);
+    }
+
+    public void setTargetFps(int fps) { targetFps = Math.max(0, fps); wake(); }
+    public int getTargetFps() { return targetFps; }
+    public void setThrottledFps(int fps) { throttledFps = Math.max(1, fps); wake(); }
+    public void setThrottleListener(ThrottleListener l) { throttleListener = l; }
+
+    public void setThrottled(boolean t) {
+        if (throttled == t) return;
+        throttled = t;
+        wake();
+        ThrottleListener l = throttleListener;
+        if (l != null) l.throttled(t);
+    }
+
+    public boolean isThrottled() { return throttled; }
+
+    /** Throttles while the stage is unfocused or iconified. Undone by stop(). FX thread. */
+    public void bindTo(Stage stage) {
+        unbind();
+        this.stage = stage;
+        stageListener = (obs, o, n) -> setThrottled(!stage.isFocused() || stage.isIconified());
+        stage.focusedProperty().addListener(stageListener);
+        stage.iconifiedProperty().addListener(stageListener);
+        setThrottled(!stage.isFocused() || stage.isIconified());
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "frame-pacer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        unbind();
+        Thread t = thread;
+        thread = null;
+        if (t != null && t != Thread.currentThread()) LockSupport.unpark(t);
+    }
+
+    private void unbind() {
+        if (stage == null) return;
+        stage.focusedProperty().removeListener(stageListener);
+        stage.iconifiedProperty().removeListener(stageListener);
+        stage = null;
+        stageListener = null;
+    }
+
+    private void wake() {
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        long next = System.nanoTime();
+        try {
+            while (running && thread == self) { // stop() + start() ravvicinati: esce il thread vecchio
+                boolean slow = throttled;
+                int fps = slow ? throttledFps : targetFps;
+                if (fps > 0) {
+                    long period = 1_000_000_000L / fps;
+                    next += period;
+                    long now = System.nanoTime();
+                    if (next < now - period) next = now; // in ritardo: niente raffica
+                    if (!waitUntil(next, !slow)) { next = System.nanoTime(); continue; } // cambio di modalità
+                } else {
+                    // uncapped: il frame successivo parte quando il precedente è stato eseguito
+                    while (running && queued.get() && targetFps == 0 && !throttled) LockSupport.park(this);
+                    next = System.nanoTime();
+                }
+                if (running && queued.compareAndSet(false, true)) Platform.runLater(runFrame);
+            }
+        } catch (Throwable t) {
+            System.err.println("[FramePacer] stopped: " + t);
+            t.printStackTrace();
+            running = false;
+        }
+    }
+
+    /**
+     * Parks until spinNanos before the deadline, then spins (only if {@code spin}).
+     * Returns false if woken early by a change of rate/mode.
+     */
+    private boolean waitUntil(long deadline, boolean spin) {
+        long margin = spin ? spinNanos : 0L;
+        int mode = modeKey();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > margin) {
+            long before = System.nanoTime();
+            long request = remaining - margin;
+            LockSupport.parkNanos(this, request);
+            if (!running || modeKey() != mode) return false;
+            long over = System.nanoTime() - before - request;
+            if (spin && over > 0) {
+                // margine = ~1.5x l'oversleep medio, entro [MIN, MAX]
+                spinNanos += ((over * 3 / 2) - spinNanos) / 8;
+                spinNanos = Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, spinNanos));
+                margin = spinNanos;
+            }
+        }
+        while (spin && System.nanoTime() < deadline) {
+            if (modeKey() != mode) return false; // ridotto a icona / senza focus: niente spin
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    private int modeKey() {
+        return throttled ? -throttledFps : targetFps;
+    }
+
+    private void runFrame() {
+        try {
+            if (running) frame.handle(System.nanoTime());
+        } finally {
+            queued.set(false);
+            if (targetFps == 0) wake();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package game.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Nanosecond timings per frame phase, kept in fixed-size ring buffers.
+ * - One ring per phase: simulation phases are written by the simulation thread, frame
+ *   phases by the FX thread, so every ring has a single writer and record() never locks
+ *   or allocates. Readers on another thread may see a sample late; fine for statistics.
+ * - stats() gives min/avg/p99 over the samples currently in the ring (rolling window).
+ * - Entity counts are plain gauges, overwritten every step/frame.
+ * - writeCsv() dumps the rings as phase,seq,nanos rows.
+ */
+public final class FrameProfiler {
+
+    // fasi sul thread di simulazione
+    public static final int TICK    = 0; // Player.tick
+    public static final int UPDATE  = 1; // CollisionManager.update + applyEvents + regole
+    public static final int CAPTURE = 2; // copia nello snapshot
+    // fasi sul thread FX
+    public static final int EVENTS  = 3; // dispatchEvents (suoni, scena)
+    public static final int HUD     = 4;
+    public static final int APPLY   = 5; // snapshot -> nodi
+    public static final int CAMERA  = 6;
+    public static final int PULSE   = 7; // CSS + layout del pulse JavaFX (pre/post layout listener)
+    public static final int FRAME   = 8; // intervallo tra due frame (FramePacer)
+    public static final int RENDER  = 9; // CanvasRenderer.render (solo con -Dgame.renderer=canvas)
+    public static final int PHASE_COUNT = 10;
+
+    private static final String[] PHASE_NAMES = {
+        "tick", "update", "capture", "events", "hud", "apply", "camera", "pulse", "frame", "render"
+    };
+
+    public static final int ENEMIES     = 0;
+    public static final int PROJECTILES = 1;
+    public static final int RINGS       = 2;
+    public static final int SPRITES     = 3; // voci dello snapshot applicate per frame
+    public static final int VISIBLE     = 4; // nodi statici in camera (ViewportCuller)
+    public static final int CULLED      = 5; // nodi statici staccati
+    public static final int OVER_BUDGET = 6; // step con cm.update() oltre -Dgame.allocBudget
+    public static final int BAKED       = 7; // nodi statici cotti in tile (una volta per livello)
+    public static final int TILES       = 8; // tile prodotti dal bake
+    public static final int COUNT_KINDS = 9;
+
+    private static final String[] COUNT_NAMES = { "enemies", "projectiles", "rings", "sprites", "visible", "culled", "alloc>budget",
+                                                  "baked", "tiles" };
+
+    private final int capacity;
+    private final long[][] samples;
+    private final long[] written = new long[PHASE_COUNT];
+    private final int[] counts = new int[COUNT_KINDS];
+    private long[] scratch; // ordinamento per il p99 (solo lettore)
+
+    public FrameProfiler(int capacity) {
+        this.capacity = Math.max(16, capacity);
+        this.samples = new long[PHASE_COUNT][this.capacity];
+        this.scratch = new long[this.capacity];
+    }
+
+    public void record(int phase, long nanos) {
+        long n = written[phase];
+        samples[phase][(int) (n % capacity)] = nanos;
+        written[phase] = n + 1;
+    }
+
+    public void setCount(int kind, int value) { counts[kind] = value; }
+    public int getCount(int kind) { return counts[kind]; }
+
+    public static String phaseName(int phase) { return PHASE_NAMES[phase]; }
+    public static String countName(int kind) { return COUNT_NAMES[kind]; }
+    public int getCapacity() { return capacity; }
+
+    /** Samples currently in the ring of a phase (at most the capacity). */
+    public int size(int phase) {
+        return (int) Math.min(written[phase], capacity);
+    }
+
+    /**
+     * Min, avg and p99 (nanoseconds) of the samples in the ring, written into out[0..2].
+     * Returns false if the phase has no samples yet. Reader side: one thread at a time.
+     */
+    public boolean stats(int phase, long[] out) {
+        int n = size(phase);
+        if (n == 0) return false;
+        System.arraycopy(samples[phase], 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        long sum = 0;
+        for (int i = 0; i < n; i++) sum += scratch[i];
+        out[0] = scratch[0];
+        out[1] = sum / n;
+        out[2] = scratch[Math.min(n - 1, (int) Math.ceil(n * 0.99) - 1)];
+        return true;
+    }
+
+    /** Writes every buffered sample, oldest first, as CSV (phase,seq,nanos). */
+    public void writeCsv(Path file) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(file))) {
+            w.println("phase,seq,nanos");
+            for (int p = 0; p < PHASE_COUNT; p++) {
+                long total = written[p];
+                long first = Math.max(0, total - capacity);
+                for (long seq = first; seq < total; seq++) {
+                    w.print(PHASE_NAMES[p]);
+                    w.print(',');
+                    w.print(seq);
+                    w.print(',');
+                    w.println(samples[p][(int) (seq % capacity)]);
+                }
+            }
+        }
+    }
+}
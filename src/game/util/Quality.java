@@ -0,0 +1,56 @@
+package game.util;
+
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.ImageView;
+
+/**
+ * Current rendering quality, shared by everything that creates or styles nodes.
+ * - HIGH: effects (shield glow, boss hit flash), smooth ImageView filtering, live parallax.
+ * - MEDIUM: no effects; parallax rendered from a cached bitmap.
+ * - LOW: no effects, no smoothing, parallax hidden (flat scene fill).
+ * - Nodes created after a change read the level directly; existing ones are updated by
+ *   applyTo(). Optional effects are registered with setEffect() so they can be restored.
+ * - Initial level from -Dgame.quality=0..2 (default HIGH); changed by {@link QualityGovernor}.
+ */
+public final class Quality {
+
+    public static final int LOW = 0, MEDIUM = 1, HIGH = 2;
+
+    private static final Object EFFECT_KEY = new Object();
+    private static volatile int level = clamp(Integer.getInteger("game.quality", HIGH));
+
+    private Quality() {}
+
+    public static int get() { return level; }
+    public static void set(int l) { level = clamp(l); }
+
+    public static boolean effects()        { return level >= HIGH; }
+    public static boolean smoothing()      { return level >= MEDIUM; }
+    public static boolean parallax()       { return level >= MEDIUM; }
+    public static boolean parallaxCached() { return level < HIGH; }
+
+    public static String name(int l) {
+        return l == LOW ? "LOW" : (l == MEDIUM ? "MEDIUM" : "HIGH");
+    }
+
+    /** Attaches an optional effect: shown only while effects() is on, kept for later. */
+    public static void setEffect(Node node, Effect effect) {
+        node.getProperties().put(EFFECT_KEY, effect);
+        node.setEffect(effects() ? effect : null);
+    }
+
+    /** Applies the current level to a subtree (smoothing and registered effects). FX thread. */
+    public static void applyTo(Node node) {
+        if (node instanceof ImageView iv) iv.setSmooth(smoothing());
+        if (node.hasProperties() && node.getProperties().get(EFFECT_KEY) instanceof Effect e) {
+            node.setEffect(effects() ? e : null);
+        }
+        if (node instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) applyTo(child);
+        }
+    }
+
+    private static int clamp(int l) { return Math.max(LOW, Math.min(HIGH, l)); }
+}
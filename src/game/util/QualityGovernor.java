@@ -0,0 +1,55 @@
+package game.util;
+
+/**
+ * Steps {@link Quality} down and up from recent frame times, with hysteresis.
+ * - Fed once per frame with the frame interval and the FX thread's own work time
+ *   (timer handler + layout pulse), both smoothed with an exponential average.
+ * - Down: the interval stays above budget * DOWN_RATIO for DOWN_HOLD frames
+ *   (vsync-locked frames that miss the budget jump to 2x, so this reacts fast).
+ * - Up: the interval is back on budget and the work uses less than UP_WORK_RATIO of it
+ *   for UP_HOLD frames. Going up needs much longer than going down, and after any
+ *   change the governor waits COOLDOWN frames, so it does not oscillate.
+ */
+public final class QualityGovernor {
+
+    private static final double EMA = 0.1;
+    private static final double DOWN_RATIO = 1.25;
+    private static final double UP_INTERVAL_RATIO = 1.05;
+    private static final double UP_WORK_RATIO = 0.5;
+    private static final int DOWN_HOLD = 20;
+    private static final int UP_HOLD = 240;
+    private static final int COOLDOWN = 120;
+
+    private final double budgetNanos;
+    private double interval = -1, work = 0;
+    private int over = 0, under = 0, cooldown = 0;
+
+    public QualityGovernor(double budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /** Returns true if the quality level changed in this frame. */
+    public boolean onFrame(long intervalNanos, long workNanos) {
+        if (interval < 0) { interval = intervalNanos; work = workNanos; return false; }
+        interval += (intervalNanos - interval) * EMA;
+        work += (workNanos - work) * EMA;
+        if (cooldown > 0) { cooldown--; return false; }
+
+        if (interval > budgetNanos * DOWN_RATIO) { over++; under = 0; }
+        else if (interval <= budgetNanos * UP_INTERVAL_RATIO && work < budgetNanos * UP_WORK_RATIO) { under++; over = 0; }
+        else { over = 0; under = 0; }
+
+        int q = Quality.get();
+        if (over >= DOWN_HOLD && q > Quality.LOW) return change(q - 1);
+        if (under >= UP_HOLD && q < Quality.HIGH) return change(q + 1);
+        return false;
+    }
+
+    private boolean change(int q) {
+        Quality.set(q);
+        over = 0;
+        under = 0;
+        cooldown = COOLDOWN;
+        return true;
+    }
+}
@@ -3,14 +3,54 @@ package game.util;
 import javafx.scene.image.Image;
 import javafx.scene.media.AudioClip;
 import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import game.jfr.ImageLoadEvent;
 
 public final class ResourceUtil {
     private ResourceUtil() {}
 
+    // Modalità headless (-Dgame.headless=true o setHeadless): nessuna immagine viene caricata,
+    // così livelli ed entità si costruiscono e si simulano senza display
+    private static volatile boolean headless = Boolean.getBoolean("game.headless");
+
+    static {
+        if (headless) useSoftwarePipeline();
+    }
+
+    public static boolean isHeadless() { return headless; }
+
+    /** Call before the first Node is created (the Node class initializer loads the toolkit). */
+    public static void setHeadless(boolean on) {
+        headless = on;
+        if (on) useSoftwarePipeline();
+    }
+
+    // javafx.scene.Node inizializza il Toolkit al caricamento della classe: in headless si evita
+    // almeno la pipeline GPU (ES2/D3D), che cercherebbe librerie native e un display
+    private static void useSoftwarePipeline() {
+        if (System.getProperty("prism.order") == null) System.setProperty("prism.order", "sw");
+    }
+
+    // Immagini già create, per URL (+ dimensioni richieste): gli Image sono immutabili, quindi
+    // 200 anelli condividono la stessa GIF decodificata invece di decodificarla 200 volte
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    /** Number of distinct images held by the cache. */
+    public static int getImageCacheSize() { return IMAGES.size(); }
+    public static void clearImageCache() { IMAGES.clear(); }
+
     private static String url(String classpathPath) {
         String srcRoot = "src/game";
         String filePath = srcRoot + classpathPath;
@@ -24,7 +64,67 @@ public final class ResourceUtil {
     }
 
     public static Image image(String classpathPath) {
-        return new Image(url(classpathPath));
+        return headless ? null : loadImage(url(classpathPath));
+    }
+
+    /** Image per url (condivisa), oppure null in modalità headless. Evento JFR game.ImageLoad. */
+    public static Image loadImage(String url) {
+        if (headless) return null;
+        Image cached = IMAGES.get(url);
+        if (cached != null) return cached;
+        ImageLoadEvent ev = ImageLoadEvent.TYPE.isEnabled() ? new ImageLoadEvent() : null;
+        if (ev != null) ev.begin();
+        Image img = new Image(url);
+        if (ev != null) commitLoad(ev, url, img, false);
+        Image prev = IMAGES.putIfAbsent(url, img);
+        return (prev != null) ? prev : img;
+    }
+
+    /** Image per url e dimensioni (condivisa), oppure null in modalità headless. Evento JFR game.ImageLoad. */
+    public static Image loadImage(String url, double w, double h, boolean preserveRatio, boolean smooth, boolean background) {
+        if (headless) return null;
+        String key = url + '|' + w + 'x' + h + (preserveRatio ? "|p" : "") + (smooth ? "|s" : "");
+        Image cached = IMAGES.get(key);
+        if (cached != null) return cached;
+        ImageLoadEvent ev = ImageLoadEvent.TYPE.isEnabled() ? new ImageLoadEvent() : null;
+        if (ev != null) ev.begin();
+        Image img = new Image(url, w, h, preserveRatio, smooth, background);
+        if (ev != null) commitLoad(ev, url, img, background);
+        Image prev = IMAGES.putIfAbsent(key, img);
+        return (prev != null) ? prev : img;
+    }
+
+    private static void commitLoad(ImageLoadEvent ev, String url, Image img, boolean background) {
+        ev.end();
+        if (!ev.shouldCommit()) return;
+        ev.url = url;
+        ev.background = background;
+        ev.error = img.isError();
+        ev.width = (int) img.getWidth();
+        ev.height = (int) img.getHeight();
+        ev.bytesDecoded = (img.getProgress() < 1.0) ? -1L : 4L * ev.width * ev.height;
+        ev.commit();
+    }
+
+    /**
+     * Larghezza e altezza di un'immagine lette dall'header (ImageIO, niente toolkit JavaFX):
+     * serve quando l'hitbox dipende dall'asset anche in headless. {0, 0} se non leggibile.
+     */
+    public static double[] imageSize(String classpathPath) {
+        try (InputStream in = URI.create(url(classpathPath)).toURL().openStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (readers.hasNext()) {
+                ImageReader r = readers.next();
+                try {
+                    r.setInput(iis);
+                    return new double[]{ r.getWidth(0), r.getHeight(0) };
+                } finally {
+                    r.dispose();
+                }
+            }
+        } catch (Exception ignored) {}
+        return new double[]{ 0, 0 };
     }
 
     public static AudioClip clip(String classpathPath) {
@@ -2,19 +2,58 @@ package game.world;
 
 
 import static game.util.ResourceUtil.*;
+import javafx.collections.ObservableList;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
+/**
+ * Un layer di parallax: un'immagine ripetuta in orizzontale che scorre a factor * camX.
+ * Le istanze (due, se l'immagine è larga almeno quanto la vista) stanno affiancate in un
+ * Group che viene spostato di -(camX * factor) modulo w: nodi e texture costanti,
+ * qualunque sia la lunghezza del livello. Il numero di copie segue la larghezza della
+ * vista (setViewWidth). Vedi {@link Parallax}.
+ */
 public class Background {
-    private final ImageView img;
-    public Background(Group root, String path, double w, double h) {
-        this(root, path, w, h, 0);
+    private final Group layer = new Group();
+    private final double w;
+    private final double factor;
+    private final Image image;
+
+    public Background(Group root, String path, double w, double h, double factor, double viewW) {
+        this.w = w;
+        this.factor = factor;
+        this.image = loadImage(path, w, h, false, true, true); // una sola texture per layer
+        fit(viewW);
+        root.getChildren().add(layer);
+    }
+
+    /** Copie sufficienti a coprire una vista larga viewW a qualunque offset (thread FX se in scena). */
+    public void setViewWidth(double viewW) {
+        fit(viewW);
+    }
+
+    private void fit(double viewW) {
+        int copies = (int) Math.ceil(viewW / w) + 1;
+        ObservableList<Node> children = layer.getChildren();
+        while (children.size() > copies) children.remove(children.size() - 1);
+        while (children.size() < copies) {
+            ImageView img = new ImageView(image);
+            img.setTranslateX(children.size() * w);
+            children.add(img);
+        }
     }
-    public Background(Group root, String path, double w, double h, double x) {
-        Image image = new Image(path, w, h, false, true, true);
-        img = new ImageView(image);
-        img.setTranslateX(x);
-        root.getChildren().add(img);
+
+    public int getCopyCount() { return layer.getChildren().size(); }
+
+    /** Porta il layer alla camera (thread FX). */
+    public void scrollTo(double camX) {
+        double offset = (camX * factor) % w;
+        if (offset < 0) offset += w;
+        layer.setTranslateX(-offset);
     }
+
+    public Group getNode() { return layer; }
+    public double getFactor() { return factor; }
 }
@@ -0,0 +1,71 @@
+package game.world;
+
+import java.util.Arrays;
+
+/**
+ * Per-frame queue of collision events.
+ * - The physics pass only records what happened (type + subject + one value);
+ *   gameplay runs later in CollisionManager.applyEvents(), audio and scene graph
+ *   changes in dispatchEvents() on the FX thread.
+ * - Storage is preallocated as parallel arrays: push() does not allocate unless
+ *   a frame produces more events than ever before.
+ */
+public final class CollisionEvents {
+
+    public static final int RING_COLLECTED   = 0; // subject = Ring
+    public static final int SPRING_TRIGGERED = 1; // subject = Spring
+    public static final int DAMAGE           = 2; // value = X della sorgente (knockback)
+    public static final int STOMP            = 3; // subject = EnemyBase
+    public static final int ENEMY_KILLED     = 4; // subject = EnemyBase (roll/spindash)
+    public static final int SHIELD_PICKUP    = 5; // subject = ShieldPickup
+    public static final int BOSS_HIT         = 6; // subject = Boss
+    public static final int DESPAWN          = 7; // subject = Node da togliere dalla scena
+    public static final int ATTACH           = 8; // subject = Node da aggiungere alla scena
+    public static final int PROJECTILE_FIRED = 9; // subject = nemico che ha sparato
+    public static final int TYPE_COUNT       = 10;
+
+    private int[] types;
+    private Object[] subjects;
+    private double[] values;
+    private int size = 0;
+
+    public CollisionEvents() {
+        this(256);
+    }
+
+    public CollisionEvents(int capacity) {
+        int n = Math.max(16, capacity);
+        types = new int[n];
+        subjects = new Object[n];
+        values = new double[n];
+    }
+
+    public void push(int type, Object subject) {
+        push(type, subject, 0.0);
+    }
+
+    public void push(int type, Object subject, double value) {
+        if (size == types.length) {
+            int n = size * 2;
+            types = Arrays.copyOf(types, n);
+            subjects = Arrays.copyOf(subjects, n);
+            values = Arrays.copyOf(values, n);
+        }
+        types[size] = type;
+        subjects[size] = subject;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int type(int i) { return types[i]; }
+    public Object subject(int i) { return subjects[i]; }
+    public double value(int i) { return values[i]; }
+
+    /** Empties the queue (drops the references so consumed objects can be collected). */
+    public void clear() {
+        Arrays.fill(subjects, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,28 @@
+package game.world;
+
+/**
+ * Collision layers as bit flags.
+ * - Every {@link Hitbox} has a layer (what it is) and a mask (what it wants to hit).
+ * - The broadphase indices store the layer with each entry and reject entries whose
+ *   layer is not in the query mask before any bounds test, so CollisionManager no
+ *   longer decides pairs by which list an object lives in.
+ */
+public final class CollisionLayer {
+
+    public static final int NONE             = 0;
+    public static final int PLAYER           = 1;
+    public static final int ENEMY            = 1 << 1;
+    public static final int ENEMY_PROJECTILE = 1 << 2;
+    public static final int PICKUP           = 1 << 3;
+    public static final int SOLID            = 1 << 4;
+    public static final int ONE_WAY          = 1 << 5;
+    public static final int TRIGGER          = 1 << 6;
+    public static final int ALL              = ~0;
+
+    private CollisionLayer() {}
+
+    /** True se le due hitbox vogliono collidere in entrambe le direzioni. */
+    public static boolean canCollide(Hitbox a, Hitbox b) {
+        return (a.getMask() & b.getLayer()) != 0 && (b.getMask() & a.getLayer()) != 0;
+    }
+}
@@ -1,26 +1,56 @@
 package game.world;
 
 import javafx.scene.Group;
-import javafx.geometry.Bounds;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import game.entities.Player;
+import game.entities.Boss;
 import game.entities.EnemyBase;
 import game.entities.Projectile;
 import game.entities.Shield;
 import game.audio.SoundManager;
 import game.world.elements.*;
 import game.world.ShieldPickup;
+import game.sim.RenderSnapshot;
+import game.render.RenderLayer;
 
 /**
  * Manages collisions and simple interactions.
- * - Robust landing detection to avoid tunneling when falling fast.
- * - Same landing logic applied to MovingPlatform.
+ * - Swept-AABB landing (time of impact) against static and moving platforms:
+ *   no tunneling at spindash speeds or on long frames, no penetration tolerances.
  * - Recompute player bounds after snapping to ground.
- * - Handles spawn case when player's bottom is just above platform top (epsilon).
+ * - Handles spawn/resting case when player's bottom is exactly on a platform top.
  * - Moving platforms carry the player horizontally (use mp.getDeltaX()).
  * - Skips ground/spring collisions while attached to a LoopDeLoop.
+ * - Static platforms, springs and obstacles are indexed in a uniform grid: each
+ *   pass only sees what is near the player/ring, so the cost stays flat on long levels.
+ * - Rings, enemies, projectiles, shield pickups and moving platforms share one
+ *   sweep-and-prune index updated as they move.
+ * - Pairs are filtered by {@link CollisionLayer}: every query passes the mask of the
+ *   collider asking, and the indices drop other layers before any bounds test.
+ *   Projectiles die on SOLID geometry.
+ * - Activity window (stile Sonic) around the camera: enemies, moving platforms,
+ *   loops and dynamic rings outside it are frozen and skipped; projectiles that
+ *   leave it despawn. Frozen objects resume from their own state when they
+ *   come back into range, so waking up is deterministic.
+ * - Collisions only read {@link Hitbox} doubles (no Bounds allocation, no live
+ *   scene graph needed); capture() copies the poses into a {@link RenderSnapshot}.
+ * - update() is the physics pass only: side effects are queued as {@link CollisionEvents}.
+ *   applyEvents() then runs the gameplay part (damage, ring count, shield, boss hp) on the
+ *   simulation thread, and the presentation part (sounds, spring animation, node
+ *   attach/removal) travels in the snapshot to dispatchEvents() on the FX thread.
+ * - Optional parallel mode (setParallelUpdate): above PARALLEL_THRESHOLD the enemy and
+ *   projectile updates are split into fork-join leaves. Spawns and events raised by
+ *   enemies are buffered per leaf and merged in list order, so the outcome is the
+ *   same as the serial loop. Small counts always stay serial.
+ * - reset() puts the level back in its post-build state in place (retry without
+ *   rebuilding the scene): what build() registered is kept in levelEnemies/levelPickups.
+ * - update() does not allocate in steady state: index loops (no iterators),
+ *   reused query lists, no lambdas or boxing. Only gameplay events (spawns,
+ *   ring scatter, sound) allocate. Check with -Dgame.allocBudget=bytes.
  */
 public class CollisionManager {
 
@@ -36,184 +66,204 @@ public class CollisionManager {
     private final List<Ring> rings = new ArrayList<>();
     private final List<ShieldPickup> shieldPickups = new ArrayList<>();
     private final List<EnemyBase> enemies = new ArrayList<>();
+    // tutto ciò che build() ha registrato, anche se poi rimosso (per reset())
+    private final List<EnemyBase> levelEnemies = new ArrayList<>();
+    private final List<ShieldPickup> levelPickups = new ArrayList<>();
+
+    // Broadphase per la geometria statica (costruita in addPlatform/addSpring/addObstacle)
+    private static final double GRID_CELL = 256.0;
+    private final SpatialGrid<Hitbox> staticGrid = new SpatialGrid<>(GRID_CELL);
+    private final List<Hitbox> nearStatic = new ArrayList<>(32); // prealloca: niente grow() a metà livello
+
+    // Granularità della finestra di attività (px)
+    private static final double ACTIVITY_CHUNK = 128.0;
+
+    // Risoluzione del terreno (test swept: niente tolleranze di penetrazione)
+    private static final double CONTACT_EPS = 1e-6; // solo errore numerico degli snap
+    private static final double STICK_DIST = 6.0;
+    private static final double CEIL_INSET = 2.0;
+
+    // Broadphase dinamica (aggiornata incrementalmente ad ogni movimento)
+    private final SweepAndPrune<Hitbox> dynamicIndex = new SweepAndPrune<>(b -> b);
+    private final List<Hitbox> nearDynamic = new ArrayList<>(32);
+
+    // Candidati restituiti dalla broadphase (test di collisione), cumulativo; pubblicato a fine update()
+    private long collisionTests = 0;
+    private volatile long collisionTestsPublished = 0;
+
+    // Eventi del passo di fisica, consumati da applyEvents()
+    private final CollisionEvents events = new CollisionEvents();
+    // Eventi già applicati al gioco, in attesa di capture() (poi dispatchEvents() sul thread FX)
+    private final CollisionEvents presentation = new CollisionEvents();
+
+    // Aggiornamento parallelo (opzionale) di nemici e proiettili
+    private static final int PARALLEL_THRESHOLD = 64; // sotto soglia si resta seriali
+    private static final int PARALLEL_LEAF = 32;      // elementi per foglia
+    private boolean parallelUpdate = false;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final List<UpdateTask> leaves = new ArrayList<>();
+    private final ForkLeaves forkLeaves = new ForkLeaves();
+    // foglia in esecuzione sul thread corrente: raccoglie spawn ed eventi dei nemici
+    private final ThreadLocal<UpdateTask> currentLeaf = new ThreadLocal<>();
+
+    // Finestra di attività in X (di default tutto il livello è attivo)
+    private double activeMinX = Double.NEGATIVE_INFINITY;
+    private double activeMaxX = Double.POSITIVE_INFINITY;
 
     public CollisionManager(Group root, Player player) {
         this.root = root;
         this.player = player;
+        player.getBounds().setOwner(player);
     }
 
     public Player getPlayer() { return player; }
+    public int getEnemyCount() { return enemies.size(); }
+    public int getProjectileCount() { return projectiles.size(); }
+    public int getRingCount() { return rings.size(); }
+    // sola lettura, per i test (stato da confrontare tra modalità seriale e parallela)
+    List<EnemyBase> enemies() { return enemies; }
+    List<Projectile> projectiles() { return projectiles; }
+    /** Eventi accodati dall'ultimo update() e non ancora applicati. */
+    public int getQueuedEventCount() { return events.size(); }
+    /** Test di collisione (candidati della broadphase) dall'avvio, aggiornato a ogni update(). */
+    public long getCollisionTests() { return collisionTestsPublished; }
+
+    /** Extent of the level being built (prima degli add*): dimensiona la griglia statica. */
+    public void setLevelExtent(double width, double height) {
+        staticGrid.presize(width, height);
+    }
+
+    public void addPlatform(Platform p) {
+        p.getBounds().setOwner(p);
+        RenderLayer.tagBaked(p.getShape(), RenderLayer.TERRAIN);
+        platforms.add(p);
+        staticGrid.insert(p.getBounds(), p.getBounds());
+    }
+    public void addMovingPlatform(MovingPlatform p) { p.getBounds().setOwner(p); RenderLayer.tag(p.getShape(), RenderLayer.TERRAIN); movingPlatforms.add(p); dynamicIndex.add(p.getBounds()); }
+    public void addSpring(Spring s) { s.getBounds().setOwner(s); RenderLayer.tagStatic(s.getSprite(), RenderLayer.DECOR); springs.add(s); staticGrid.insert(s.getBounds(), s.getBounds()); }
+    public void addObstacle(Obstacle o) { o.getBounds().setOwner(o); RenderLayer.tagBaked(o.getShape(), RenderLayer.TERRAIN); obstacles.add(o); staticGrid.insert(o.getBounds(), o.getBounds()); }
+    public void addLoop(LoopDeLoop l) {
+        l.getBounds().setOwner(l);
+        for (javafx.scene.Node n : l.getNodes()) RenderLayer.tagStatic(n, RenderLayer.DECOR);
+        RenderLayer.tagBaked(l.getSprite(), RenderLayer.DECOR); // il follower si muove, il loop no
+        loops.add(l);
+    }
+    public void addRing(Ring r) {
+        r.getBounds().setOwner(r);
+        // anelli del livello: fermi e mai tolti dalla scena (raccolti = nascosti)
+        if (r.isLevelRing()) RenderLayer.tagStatic(r.getSprite(), RenderLayer.PICKUP);
+        else RenderLayer.tag(r.getSprite(), RenderLayer.PICKUP);
+        rings.add(r);
+        dynamicIndex.add(r.getBounds());
+        if (r.getSprite().getParent() == null) events.push(CollisionEvents.ATTACH, r.getSprite());
+    }
+
+    /**
+     * Registra un proiettile; se lo sprite non ha parent viene agganciato a root in dispatchEvents().
+     * Chiamato da un nemico durante l'aggiornamento parallelo, viene accodato e registrato dopo.
+     */
+    public void addProjectile(Projectile p) {
+        p.getBounds().setOwner(p); // oggetto appena creato dal thread corrente
+        UpdateTask leaf = currentLeaf.get();
+        if (leaf != null) { leaf.spawns.add(p); return; }
+        RenderLayer.tag(p.getSprite(), RenderLayer.PROJECTILE);
+        projectiles.add(p);
+        dynamicIndex.add(p.getBounds());
+        if (p.getSprite().getParent() == null) events.push(CollisionEvents.ATTACH, p.getSprite());
+    }
+
+    /** Accoda un evento di gioco (sicuro anche dentro l'aggiornamento parallelo dei nemici). */
+    public void emit(int type, Object subject) {
+        UpdateTask leaf = currentLeaf.get();
+        if (leaf != null) leaf.events.push(type, subject);
+        else events.push(type, subject);
+    }
+    public void addEnemy(EnemyBase e) { e.getBounds().setOwner(e); RenderLayer.tag(e.getSprite(), RenderLayer.ENEMY); enemies.add(e); levelEnemies.add(e); dynamicIndex.add(e.getBounds()); }
+
+    /**
+     * Imposta la finestra di attività (coordinate mondo). Viene allineata a blocchi di
+     * ACTIVITY_CHUNK px, così un oggetto si sveglia sempre alla stessa distanza dal bordo.
+     */
+    public void setActivityWindow(double minX, double maxX) {
+        activeMinX = Math.floor(minX / ACTIVITY_CHUNK) * ACTIVITY_CHUNK;
+        activeMaxX = Math.ceil(maxX / ACTIVITY_CHUNK) * ACTIVITY_CHUNK;
+    }
+
+    /** Abilita la modalità parallela per nemici e proiettili (default: seriale). */
+    public void setParallelUpdate(boolean on) { parallelUpdate = on; }
+    public boolean isParallelUpdate() { return parallelUpdate; }
+    public void setParallelPool(ForkJoinPool pool) { this.pool = (pool != null ? pool : ForkJoinPool.commonPool()); }
 
-    public void addPlatform(Platform p) { platforms.add(p); }
-    public void addMovingPlatform(MovingPlatform p) { movingPlatforms.add(p); }
-    public void addSpring(Spring s) { springs.add(s); }
-    public void addObstacle(Obstacle o) { obstacles.add(o); }
-    public void addLoop(LoopDeLoop l) { loops.add(l); }
-    public void addRing(Ring r) { rings.add(r); }
-    public void addProjectile(Projectile p) { projectiles.add(p); }
-    public void addEnemy(EnemyBase e) { enemies.add(e); }
+    /** True se la hitbox è (anche solo in parte) dentro la finestra di attività. */
+    public boolean isActive(Hitbox b) {
+        return b.getMaxX() >= activeMinX && b.getMinX() <= activeMaxX;
+    }
 
     public void update(double dt) {
         // 0) update rings physics & cleanup
         for (int i = rings.size() - 1; i >= 0; i--) {
             Ring rr = rings.get(i);
+            boolean moving = rr.isDynamic();
+            if (moving && !isActive(rr.getBounds())) continue; // congelato fuori finestra
             rr.update(dt);
 
             // simple ground/platform collision for dynamic rings (bounce)
             if (rr.isDynamic()) {
-                javafx.geometry.Bounds rb = rr.getBounds();
-                // collide with static platforms
-                for (Platform p : platforms) {
-                    javafx.geometry.Bounds pbp = p.getShape().getBoundsInParent();
-                    if (rr.getVY() > 0 && rb.intersects(pbp)) {
-                        double newY = pbp.getMinY() - rb.getHeight();
-                        rr.setY(newY);
-                        rr.setVY(-Math.abs(rr.getVY()) * 0.5);
-                        rr.setVX(rr.getVX() * 0.95);
-                        rb = rr.getBounds();
-                    }
+                Hitbox rb = rr.getBounds();
+                // collide with static platforms (solo quelle vicine al tratto percorso)
+                queryStaticSwept(rb, 0.0, rb.getMask() & CollisionLayer.SOLID);
+                for (int k = 0, n = nearStatic.size(); k < n; k++) {
+                    Hitbox sb = nearStatic.get(k);
+                    if (rr.getVY() > 0 && sweepTop(rb, sb) >= 0) bounceRing(rr, sb);
                 }
                 // collide with moving platforms
-                for (MovingPlatform mp : movingPlatforms) {
-                    javafx.geometry.Bounds pbp = mp.getShape().getBoundsInParent();
-                    if (rr.getVY() > 0 && rb.intersects(pbp)) {
-                        double newY = pbp.getMinY() - rb.getHeight();
-                        rr.setY(newY);
-                        rr.setVY(-Math.abs(rr.getVY()) * 0.5);
-                        rr.setVX(rr.getVX() * 0.95);
-                        rb = rr.getBounds();
-                    }
+                queryDynamicSwept(rb, rb.getMask() & CollisionLayer.ONE_WAY);
+                for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+                    Hitbox mb = nearDynamic.get(k);
+                    if (rr.getVY() > 0 && sweepTop(rb, mb) >= 0) bounceRing(rr, mb);
                 }
             }
 
             if (rr.isExpired()) {
-                root.getChildren().remove(rr.getSprite());
+                events.push(CollisionEvents.DESPAWN, rr.getSprite());
                 rings.remove(i);
+                dynamicIndex.remove(rr.getBounds());
+            } else if (moving) {
+                dynamicIndex.move(rr.getBounds());
             }
         }
 
         // 1) aggiorna piattaforme mobili
-        for (MovingPlatform mp : movingPlatforms) {
+        for (int i = 0, n = movingPlatforms.size(); i < n; i++) {
+            MovingPlatform mp = movingPlatforms.get(i);
+            if (!isActive(mp.getBounds())) continue;
             mp.update(dt);
+            dynamicIndex.move(mp.getBounds());
         }
 
         // --- LoopDeLoop handling (prima di calcolare le collisioni col terreno) ---
         boolean inLoop = false;
-        for (LoopDeLoop l : loops) {
+        for (int i = 0, n = loops.size(); i < n; i++) {
+            LoopDeLoop l = loops.get(i);
+            if (!isActive(l.getBounds())) continue;
             if (l.update(dt, player)) {
                 inLoop = true;
             }
         }
 
-        // Bounds del player (dopo eventuale update del loop)
-        Bounds pb = player.getBounds();
+        // Hitbox del player (viva: riflette anche gli snap successivi)
+        Hitbox pb = player.getBounds();
 
         // Se NON siamo dentro un loop, eseguiamo terreno/pedane/springs
         if (!inLoop) {
-            // 2) collisione player ↔ piattaforme
-            boolean onGround = false;
-            double vy = player.getVelocityY();
-
-            final double PEN_TOLERANCE = 24.0;
-            final double MIN_STEP_BACK = 1.0;
-
-            // --- Piattaforme statiche
-            for (Platform p : platforms) {
-                Bounds b = p.getShape().getBoundsInParent();
-                if ((pb.getMaxX() > b.getMinX()) && (pb.getMinX() < b.getMaxX())) {
-                    double top = b.getMinY();
-                    double bottom = pb.getMaxY();
-                    double prevBottom = bottom - Math.max(MIN_STEP_BACK, vy * dt);
-
-                    boolean crossedTopNow   = (vy >= 0 && prevBottom <= top && bottom >= top);
-                    boolean withinTolerance = (vy >= 0 && bottom >= top && bottom <= top + PEN_TOLERANCE);
-                    boolean grazingTop      = (bottom >= top - 1.0 && bottom < top && vy >= -1.0);
-
-                    if (crossedTopNow || withinTolerance || grazingTop) {
-                        double newCenterY = top - (pb.getHeight() / 2.0);
-                        player.setCenter(player.getCenterX(), newCenterY);
-                        player.setVelocityY(0);
-                        onGround = true;
-                        pb = player.getBounds(); // aggiorna per i check successivi
-                    }
-                }
-            }
-
-            // --- Head-bump con il soffitto delle piattaforme statiche ---
-            for (Platform p : platforms) {
-                Bounds b = p.getShape().getBoundsInParent();
-                double inset = 2.0;
-                double bMinX = b.getMinX() + inset;
-                double bMaxX = b.getMaxX() - inset;
-
-                if ((pb.getMaxX() > bMinX) && (pb.getMinX() < bMaxX)) {
-                    double bottom = b.getMaxY();   // fondo della piattaforma (soffitto)
-                    double top    = pb.getMinY();  // testa del player
-                    double prevTop = top - Math.max(MIN_STEP_BACK, -vy * dt);
-
-                    boolean crossedBottomNow = (vy < 0 && prevTop >= bottom && top <= bottom);
-                    if (crossedBottomNow) {
-                        double newCenterY = bottom + (pb.getHeight() / 2.0);
-                        player.setCenter(player.getCenterX(), newCenterY + 0.5);
-                        player.setVelocityY(0);
-                        pb = player.getBounds();
-                    }
-                }
-            }
-
-            // --- Ground stick helper (chiude micro-gap quando cammini) ---
-            if (!onGround) {
-                double bestTop = Double.POSITIVE_INFINITY;
-                Bounds bestBounds = null;
-                for (Platform p : platforms) {
-                    Bounds b = p.getShape().getBoundsInParent();
-                    if ((pb.getMaxX() > b.getMinX()) && (pb.getMinX() < b.getMaxX())) {
-                        double top = b.getMinY();
-                        if (top >= pb.getMaxY() - 6 && top <= pb.getMaxY() + 6) {
-                            if (top < bestTop) { bestTop = top; bestBounds = b; }
-                        }
-                    }
-                }
-                if (bestBounds != null && player.getVelocityY() >= 0) {
-                    double newCenterY = bestTop - (pb.getHeight() / 2.0);
-                    player.setCenter(player.getCenterX(), newCenterY);
-                    player.setVelocityY(0);
-                    onGround = true;
-                    pb = player.getBounds();
-                }
-            }
-
-            // --- Piattaforme mobili (con carry in X) ---
-            for (MovingPlatform mp : movingPlatforms) {
-                Bounds b = mp.getShape().getBoundsInParent();
-                if ((pb.getMaxX() > b.getMinX()) && (pb.getMinX() < b.getMaxX())) {
-                    double top = b.getMinY();
-                    double bottom = pb.getMaxY();
-                    double prevBottom = bottom - Math.max(MIN_STEP_BACK, vy * dt);
-
-                    boolean crossedTopNow   = (vy >= 0 && prevBottom <= top && bottom >= top);
-                    boolean withinTolerance = (vy >= 0 && bottom >= top && bottom <= top + PEN_TOLERANCE);
-                    boolean grazingTop      = (bottom >= top - 1.0 && bottom < top && vy >= -1.0);
-
-                    if (crossedTopNow || withinTolerance || grazingTop) {
-                        double newCenterY = top - (pb.getHeight() / 2.0);
-
-                        // *** CARRY ORIZZONTALE ***
-                        double carriedX = player.getCenterX() + mp.getDeltaX();
-                        player.setCenter(carriedX, newCenterY);
-
-                        player.setVelocityY(0);
-                        onGround = true;
-                        pb = player.getBounds();
-                    }
-                }
-            }
-
-            player.setOnGround(onGround);
+            // 2) collisione player ↔ piattaforme (statiche + mobili) in un solo passaggio
+            player.setOnGround(resolveGround(dt));
 
             // --- 3) Springs (atterraggio dall'alto, valida su tutta la larghezza) ---
-            for (Spring s : springs) {
-                Bounds sb = s.getBounds();
+            queryStaticSwept(pb, 0.0, pb.getMask() & CollisionLayer.TRIGGER);
+            for (int k = 0, n = nearStatic.size(); k < n; k++) {
+                if (!(nearStatic.get(k).getOwner() instanceof Spring s)) continue;
+                Hitbox sb = s.getBounds();
 
                 // Ampiezza di sovrapposizione orizzontale (non solo un contatto puntiforme)
                 double overlapX = Math.min(pb.getMaxX(), sb.getMaxX()) - Math.max(pb.getMinX(), sb.getMinX());
@@ -221,13 +271,11 @@ public class CollisionManager {
 
                 double topS = sb.getMinY();
                 double bottomP = pb.getMaxY();
-                double prevBottomP = bottomP - Math.max(1.0, player.getVelocityY() * dt);
-
-                // Tolleranza dinamica per frame skip (maggiore se si cade veloci)
-                double eps = Math.max(6.0, Math.abs(player.getVelocityY()) * dt + 2.0);
+                double prevBottomP = pb.getPrevY() + pb.getHeight();
 
+                // Swept: il fondo del player attraversa (o tocca) il top della molla in questo step
                 boolean comingDown = player.getVelocityY() >= 0;
-                boolean crossedTop = (prevBottomP <= topS + eps) && (bottomP >= topS - eps);
+                boolean crossedTop = (prevBottomP <= topS + CONTACT_EPS) && (bottomP >= topS - CONTACT_EPS);
                 boolean verticalOk = (pb.getMinY() < sb.getMinY() + 8.0); // evita attivazioni quando si impatta di lato alto
 
                 if (comingDown && crossedTop && verticalOk) {
@@ -235,8 +283,7 @@ public class CollisionManager {
                     double newCenterY = topS - (pb.getHeight() * 0.5);
                     player.setCenter(player.getCenterX(), newCenterY);
 
-                    s.trigger();
-                    try { SoundManager.playSfx("assets/audio/spring.wav"); } catch (Throwable ignored) {}
+                    events.push(CollisionEvents.SPRING_TRIGGERED, s);
 
                     player.setVelocityY(-Math.abs(s.getPower()));
                     player.setOnGround(false);
@@ -245,8 +292,10 @@ public class CollisionManager {
             }
 
             // --- Blocco laterale contro le molle (evita di trapassarle dai lati) ---
-            for (Spring s : springs) {
-                Bounds sb = s.getBounds();
+            queryStatic(pb, pb.getMask() & CollisionLayer.TRIGGER);
+            for (int k = 0, n = nearStatic.size(); k < n; k++) {
+                if (!(nearStatic.get(k).getOwner() instanceof Spring s)) continue;
+                Hitbox sb = s.getBounds();
                 // Se non c'è intersezione, salta
                 if (!pb.intersects(sb)) continue;
 
@@ -279,10 +328,11 @@ public class CollisionManager {
             }
 
             // 4) Obstacles
-            for (Obstacle o : obstacles) {
+            queryStatic(pb, pb.getMask() & CollisionLayer.TRIGGER);
+            for (int k = 0, n = nearStatic.size(); k < n; k++) {
+                if (!(nearStatic.get(k).getOwner() instanceof Obstacle o)) continue;
                 if (pb.intersects(o.getBounds())) {
-                    player.applyKnockback((o.getBounds().getMinX()+o.getBounds().getMaxX())*0.5);
-                    player.takeDamage();
+                    events.push(CollisionEvents.DAMAGE, o, (o.getBounds().getMinX()+o.getBounds().getMaxX())*0.5);
                 }
             }
             
@@ -292,9 +342,11 @@ public class CollisionManager {
                 double py = player.getCenterY();
                 double radius = 140.0;
                 double pull = 520.0;
-                for (Ring r : rings) {
-                    if (!r.canBeCollected()) continue;
-                    javafx.geometry.Bounds rb = r.getBounds();
+                dynamicIndex.queryRadius(px, py, radius, pb.getMask() & CollisionLayer.PICKUP, nearDynamic);
+                collisionTests += nearDynamic.size();
+                for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+                    if (!(nearDynamic.get(k).getOwner() instanceof Ring r) || !r.canBeCollected()) continue;
+                    Hitbox rb = r.getBounds();
                     double rx = (rb.getMinX()+rb.getMaxX())*0.5;
                     double ry = (rb.getMinY()+rb.getMaxY())*0.5;
                     double dx = px - rx;
@@ -310,73 +362,491 @@ public class CollisionManager {
                 }
             }
 
-            // 6.5) Shield pickups
-            for (int i = shieldPickups.size()-1; i>=0; --i) {
-                ShieldPickup sp = shieldPickups.get(i);
-                if (pb.intersects(sp.getBounds())) {
-                    player.equipShield(sp.getType());
-                    sp.collect();
-                    shieldPickups.remove(i);
+            // 6.5) Shield pickups + 7) Rings (raccolta): stesso layer, una sola query
+            queryDynamic(pb, pb.getMask() & CollisionLayer.PICKUP);
+            for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+                if (nearDynamic.get(k).getOwner() instanceof ShieldPickup sp) {
+                    events.push(CollisionEvents.SHIELD_PICKUP, sp);
+                    shieldPickups.remove(sp);
+                    dynamicIndex.remove(sp.getBounds());
                 }
             }
-
-            // 7) Rings (raccolta)
-            for (Ring r : rings) {
-                if (r.canBeCollected() && pb.intersects(r.getBounds())) {
-                    r.collect();
-                    player.addRings(1);
-                    try { SoundManager.playSfx("/assets/sfx/ring.wav"); } catch (Throwable ignored) {}
+            for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+                if (nearDynamic.get(k).getOwner() instanceof Ring r && r.canBeCollected()) {
+                    r.markCollected();
+                    events.push(CollisionEvents.RING_COLLECTED, r);
                 }
             }
         } // fine if (!inLoop)
-        // 5) Enemies (sempre aggiornati, anche durante il loop)
-        for (EnemyBase e : enemies) {
-            e.update(dt);
+        // 5) Enemies (aggiornati anche durante il loop, solo se dentro la finestra)
+        if (parallelUpdate && enemies.size() >= PARALLEL_THRESHOLD) {
+            runParallel(true, enemies.size(), dt);
+            for (int i = 0, n = enemies.size(); i < n; i++) dynamicIndex.move(enemies.get(i).getBounds());
+        } else {
+            for (int i = 0, n = enemies.size(); i < n; i++) {
+                EnemyBase e = enemies.get(i);
+                if (!isActive(e.getBounds())) continue;
+                e.update(dt);
+                dynamicIndex.move(e.getBounds());
+            }
         }
         // Gestione collisione player-nemici dopo l'aggiornamento
-        for (EnemyBase e : enemies) {
-            if (e.isAlive() && pb.intersects(e.getBounds())) {
-                e.onPlayerCollision(player);
+        queryDynamic(pb, pb.getMask() & CollisionLayer.ENEMY);
+        for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+            if (nearDynamic.get(k).getOwner() instanceof EnemyBase e && e.isAlive() && pb.intersects(e.getBounds())) {
+                e.onPlayerCollision(player, events);
             }
         }
         // sweep dead enemies
         for (int ei = enemies.size() - 1; ei >= 0; --ei) {
             EnemyBase ee = enemies.get(ei);
             if (!ee.isAlive()) {
-                if (ee.getSprite() != null && ee.getSprite().getParent() instanceof javafx.scene.Group) {
-                    ((javafx.scene.Group)ee.getSprite().getParent()).getChildren().remove(ee.getSprite());
-                }
+                if (ee.getSprite() != null) events.push(CollisionEvents.DESPAWN, ee.getSprite());
                 enemies.remove(ei);
+                dynamicIndex.remove(ee.getBounds());
             }
         }
 
-        // 6) Projectiles (sempre aggiornati)
+        // 6) Projectiles (quelli usciti dalla finestra di attività o contro un SOLID spariscono)
+        // aggiornamento in avanti in entrambi i modi (come le foglie), poi pulizia a ritroso
+        if (parallelUpdate && projectiles.size() >= PARALLEL_THRESHOLD) {
+            runParallel(false, projectiles.size(), dt);
+        } else {
+            for (int i = 0, n = projectiles.size(); i < n; i++) projectiles.get(i).update(dt);
+        }
         for (int i = projectiles.size() - 1; i >= 0; --i) {
             Projectile p = projectiles.get(i);
-            p.update(dt);
+            Hitbox prb = p.getBounds();
+            if (p.isAlive() && !isActive(prb)) p.kill();
+            if (p.isAlive()) {
+                queryStatic(prb, prb.getMask() & CollisionLayer.SOLID);
+                if (!nearStatic.isEmpty()) p.kill();
+            }
             if (!p.isAlive()) {
-                root.getChildren().remove(p.getSprite());
+                events.push(CollisionEvents.DESPAWN, p.getSprite());
                 projectiles.remove(i);
+                dynamicIndex.remove(prb);
                 continue;
             }
-            if (pb.intersects(p.getBounds())) {
-                player.applyKnockback((p.getBounds().getMinX()+p.getBounds().getMaxX())*0.5);
-                player.takeDamage();
+            dynamicIndex.move(prb);
+        }
+        queryDynamic(pb, pb.getMask() & CollisionLayer.ENEMY_PROJECTILE);
+        for (int k = 0, n = nearDynamic.size(); k < n; k++) {
+            if (nearDynamic.get(k).getOwner() instanceof Projectile p) {
+                events.push(CollisionEvents.DAMAGE, p, (p.getBounds().getMinX()+p.getBounds().getMaxX())*0.5);
                 p.kill();
-                root.getChildren().remove(p.getSprite());
-                projectiles.remove(i);
+                events.push(CollisionEvents.DESPAWN, p.getSprite());
+                projectiles.remove(p);
+                dynamicIndex.remove(p.getBounds());
             }
         }
+        dynamicIndex.compact(); // rimozioni dello step (despawn, raccolte) in un solo passaggio
+
+        collisionTestsPublished = collisionTests;
+    }
+
+    /**
+     * Applica al gioco gli effetti accodati dall'ultimo update(), nell'ordine in cui sono
+     * avvenuti (thread di simulazione: niente grafo di scena). Gli eventi generati nel
+     * frattempo (anelli persi, scudo) finiscono in coda e vengono applicati nello stesso giro.
+     * Tutto passa poi nella coda di presentazione, consegnata con il prossimo capture().
+     */
+    public void applyEvents() {
+        for (int i = 0; i < events.size(); i++) {
+            int type = events.type(i);
+            Object subject = events.subject(i);
+            switch (type) {
+                case CollisionEvents.RING_COLLECTED:
+                    player.addRings(1);
+                    break;
+                case CollisionEvents.DAMAGE:
+                    player.applyKnockback(events.value(i));
+                    player.takeDamage();
+                    break;
+                case CollisionEvents.SHIELD_PICKUP:
+                    player.equipShield(((ShieldPickup) subject).getType());
+                    break;
+                case CollisionEvents.BOSS_HIT:
+                    if (!((Boss) subject).onHit()) continue; // i-frame: niente flash
+                    break;
+                default:
+                    break;
+            }
+            presentation.push(type, subject, events.value(i));
+        }
+        events.clear();
+    }
+
+    /** Scarta gli eventi di presentazione in attesa (headless: nessuno li mostra). */
+    public void discardPresentation() {
+        presentation.clear();
+    }
+
+    /**
+     * Parte visiva/sonora degli eventi consegnati da uno snapshot (thread FX).
+     * Ogni effetto sonoro parte al massimo una volta per dispatch (10 anelli nello stesso frame = 1 suono).
+     */
+    public void dispatchEvents(CollisionEvents ev) {
+        int played = 0; // bit per tipo di evento: suono già partito in questo dispatch
+        for (int i = 0, n = ev.size(); i < n; i++) {
+            int type = ev.type(i);
+            Object subject = ev.subject(i);
+            switch (type) {
+                case CollisionEvents.RING_COLLECTED:
+                    ((Ring) subject).collect();
+                    break;
+                case CollisionEvents.SPRING_TRIGGERED:
+                    ((Spring) subject).trigger();
+                    break;
+                case CollisionEvents.SHIELD_PICKUP:
+                    ((ShieldPickup) subject).collect();
+                    break;
+                case CollisionEvents.BOSS_HIT:
+                    ((Boss) subject).showHitFlash();
+                    break;
+                case CollisionEvents.DESPAWN:
+                    detach((javafx.scene.Node) subject);
+                    break;
+                case CollisionEvents.ATTACH:
+                    attach((javafx.scene.Node) subject);
+                    break;
+                default:
+                    break;
+            }
+            String sfx = sfxFor(type);
+            if (sfx != null && (played & (1 << type)) == 0) {
+                played |= 1 << type;
+                try { SoundManager.playSfx(sfx); } catch (Throwable ignored) {}
+            }
+        }
+    }
+
+    private void attach(javafx.scene.Node node) {
+        if (node.getParent() != null) return;
+        game.util.Quality.applyTo(node); // creato (o tolto) prima dell'ultimo cambio di qualità
+        root.getChildren().add(node);
+    }
+
+    private static void detach(javafx.scene.Node node) {
+        if (node.getParent() instanceof Group g) g.getChildren().remove(node);
+    }
+
+    /**
+     * Riporta il livello allo stato di fine build senza ricostruirlo (retry immediato):
+     * nemici e boss rianimati al punto di partenza, anelli e scudi di nuovo raccoglibili,
+     * piattaforme mobili e loop da capo; proiettili e anelli persi spariscono.
+     * Thread FX con la simulazione ferma: i nodi vengono toccati direttamente.
+     */
+    public void reset() {
+        events.clear();
+        presentation.clear();
+        dynamicIndex.clear();
+
+        for (int i = 0, n = projectiles.size(); i < n; i++) detach(projectiles.get(i).getSprite());
+        projectiles.clear();
+
+        for (int i = rings.size() - 1; i >= 0; i--) {
+            Ring r = rings.get(i);
+            if (!r.isLevelRing()) { detach(r.getSprite()); rings.remove(i); continue; }
+            r.reset();
+            dynamicIndex.add(r.getBounds());
+        }
+
+        enemies.clear();
+        for (int i = 0, n = levelEnemies.size(); i < n; i++) {
+            EnemyBase e = levelEnemies.get(i);
+            e.reset();
+            enemies.add(e);
+            dynamicIndex.add(e.getBounds());
+            if (e.getSprite() != null) {
+                e.getBounds().applyTo(e.getSprite());
+                attach(e.getSprite());
+            }
+        }
+
+        shieldPickups.clear();
+        for (int i = 0, n = levelPickups.size(); i < n; i++) {
+            ShieldPickup sp = levelPickups.get(i);
+            sp.reset();
+            shieldPickups.add(sp);
+            dynamicIndex.add(sp.getBounds());
+            attach(sp.getSprite());
+        }
+
+        for (int i = 0, n = movingPlatforms.size(); i < n; i++) {
+            MovingPlatform mp = movingPlatforms.get(i);
+            mp.reset();
+            dynamicIndex.add(mp.getBounds());
+        }
+        for (int i = 0, n = loops.size(); i < n; i++) loops.get(i).reset();
+    }
+
+    private static String sfxFor(int type) {
+        switch (type) {
+            case CollisionEvents.RING_COLLECTED:   return "/assets/sfx/ring.wav";
+            case CollisionEvents.SPRING_TRIGGERED: return "assets/audio/spring.wav";
+            case CollisionEvents.STOMP:            return "/assets/sfx/stomp.wav";
+            case CollisionEvents.ENEMY_KILLED:     return "/assets/sfx/enemy_die.wav";
+            case CollisionEvents.PROJECTILE_FIRED: return "/assets/sfx/shoot.wav";
+            default:                               return null;
+        }
+    }
+
+    // --- aggiornamento parallelo (fork-join) ---
+
+    /**
+     * Aggiorna nemici (enemiesPass) o proiettili [0, n) in foglie da PARALLEL_LEAF elementi.
+     * Le foglie sono riusate tra un frame e l'altro; spawn ed eventi delle foglie vengono
+     * poi applicati nell'ordine della lista, come nel ciclo seriale.
+     */
+    private void runParallel(boolean enemiesPass, int n, double dt) {
+        int count = (n + PARALLEL_LEAF - 1) / PARALLEL_LEAF;
+        while (leaves.size() < count) leaves.add(new UpdateTask());
+        for (int i = 0; i < count; i++) {
+            UpdateTask t = leaves.get(i);
+            t.reinitialize();
+            t.enemiesPass = enemiesPass;
+            t.from = i * PARALLEL_LEAF;
+            t.to = Math.min(n, t.from + PARALLEL_LEAF);
+            t.dt = dt;
+        }
+        forkLeaves.reinitialize();
+        forkLeaves.count = count;
+        pool.invoke(forkLeaves);
+
+        // merge deterministico: foglia per foglia, nell'ordine della lista
+        for (int i = 0; i < count; i++) {
+            UpdateTask t = leaves.get(i);
+            for (int k = 0, m = t.spawns.size(); k < m; k++) addProjectile(t.spawns.get(k));
+            for (int k = 0, m = t.events.size(); k < m; k++) events.push(t.events.type(k), t.events.subject(k), t.events.value(k));
+            t.spawns.clear();
+            t.events.clear();
+        }
+    }
+
+    /** Radice: lancia le foglie e le attende in ordine. */
+    private final class ForkLeaves extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // mai serializzato (RecursiveAction è Serializable)
+        int count;
+
+        @Override
+        protected void compute() {
+            for (int i = count - 1; i > 0; i--) leaves.get(i).fork();
+            leaves.get(0).invoke();
+            for (int i = 1; i < count; i++) leaves.get(i).join();
+        }
+    }
+
+    /** Foglia: un intervallo di nemici o di proiettili. */
+    private final class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        final transient List<Projectile> spawns = new ArrayList<>();
+        final transient CollisionEvents events = new CollisionEvents(16);
+        boolean enemiesPass;
+        int from, to;
+        double dt;
+
+        @Override
+        protected void compute() {
+            if (!enemiesPass) {
+                for (int i = from; i < to; i++) projectiles.get(i).update(dt);
+                return;
+            }
+            currentLeaf.set(this);
+            try {
+                for (int i = from; i < to; i++) {
+                    EnemyBase e = enemies.get(i);
+                    if (isActive(e.getBounds())) e.update(dt);
+                }
+            } finally {
+                currentLeaf.set(null);
+            }
+        }
+    }
+
+    /**
+     * Risoluzione terreno in un solo passaggio, con test swept (tempo d'impatto):
+     * - interroga una volta le superfici candidate lungo il tratto percorso nello step
+     *   (griglia statica filtrata su SOLID + piattaforme mobili ONE_WAY);
+     * - sceglie il primo pavimento colpito (TOI minimo) e il soffitto attraversato;
+     * - applica un unico snap: pavimento (con carry della piattaforma mobile), altrimenti
+     *   soffitto, altrimenti il "ground stick" sui micro-gap quando si cammina.
+     * Ritorna true se il player è appoggiato.
+     */
+    private boolean resolveGround(double dt) {
+        Hitbox pb = player.getBounds();
+        double vy = player.getVelocityY();
+        double bottom = pb.getMaxY();
+        double head = pb.getMinY();
+        double prevHead = pb.getPrevY();
+
+        // una sola query che copre l'intero tratto percorso + la distanza di ground stick
+        queryStaticSwept(pb, STICK_DIST, pb.getMask() & CollisionLayer.SOLID);
+        queryDynamicSwept(pb, pb.getMask() & CollisionLayer.ONE_WAY);
+
+        double floorT = Double.POSITIVE_INFINITY;
+        Hitbox floor = null;
+        MovingPlatform carrier = null;
+        double ceilBottom = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0, n = nearStatic.size(); i < n; i++) {
+            Hitbox b = nearStatic.get(i);
+            double t = sweepTop(pb, b);
+            if (t >= 0 && t < floorT) { floorT = t; floor = b; }
+
+            // soffitto: la testa attraversa il fondo della piattaforma salendo (inset sugli spigoli)
+            double under = b.getMaxY();
+            if (vy < 0 && prevHead >= under - CONTACT_EPS && head <= under) {
+                double tc = (prevHead == head) ? 0.0 : (prevHead - under) / (prevHead - head);
+                double xAt = pb.getPrevX() + (pb.getMinX() - pb.getPrevX()) * tc;
+                if (xAt + pb.getWidth() > b.getMinX() + CEIL_INSET && xAt < b.getMaxX() - CEIL_INSET) {
+                    if (under > ceilBottom) ceilBottom = under;
+                }
+            }
+        }
+
+        // piattaforme mobili: a parità di TOI vincono loro (trasportano il player)
+        for (int i = 0, n = nearDynamic.size(); i < n; i++) {
+            Hitbox b = nearDynamic.get(i);
+            double t = sweepTop(pb, b);
+            if (t >= 0 && t <= floorT) { floorT = t; floor = b; carrier = (MovingPlatform) b.getOwner(); }
+        }
+
+        // Ground stick helper (chiude micro-gap quando cammini o la pedana scende)
+        if (floor == null && vy >= 0) {
+            double bestTop = Double.POSITIVE_INFINITY;
+            for (int i = 0, n = nearStatic.size(); i < n; i++) {
+                Hitbox b = nearStatic.get(i);
+                if (overlapsX(pb, b) && isStickable(b.getMinY(), bottom) && b.getMinY() < bestTop) {
+                    bestTop = b.getMinY(); floor = b; carrier = null;
+                }
+            }
+            for (int i = 0, n = nearDynamic.size(); i < n; i++) {
+                Hitbox b = nearDynamic.get(i);
+                if (overlapsX(pb, b) && isStickable(b.getMinY(), bottom) && b.getMinY() <= bestTop) {
+                    bestTop = b.getMinY(); floor = b; carrier = (MovingPlatform) b.getOwner();
+                }
+            }
+        }
+
+        double halfH = pb.getHeight() / 2.0;
+        if (floor != null) {
+            // *** CARRY ORIZZONTALE ***
+            double cx = player.getCenterX() + (carrier != null ? carrier.getDeltaX() : 0.0);
+            player.setCenter(cx, floor.getMinY() - halfH);
+            player.setVelocityY(0);
+            return true;
+        }
+        if (ceilBottom != Double.NEGATIVE_INFINITY) {
+            player.setCenter(player.getCenterX(), ceilBottom + halfH + 0.5);
+            player.setVelocityY(0);
+        }
+        return false;
+    }
+
+    /**
+     * Swept AABB contro il top di una superficie (one-way dall'alto).
+     * Entrambe le box si muovono linearmente da prev a corrente nello step: ritorna il tempo
+     * d'impatto t in [0,1] in cui il fondo di {@code body} raggiunge il top di {@code surface}
+     * con sovrapposizione orizzontale in quell'istante, oppure -1 se non c'è contatto.
+     */
+    static double sweepTop(Hitbox body, Hitbox surface) {
+        double rel0 = (body.getPrevY() + body.getHeight()) - surface.getPrevY();
+        double rel1 = body.getMaxY() - surface.getMinY();
+        if (rel0 > CONTACT_EPS || rel1 < -CONTACT_EPS) return -1;
+        double t = (rel1 - rel0 <= 1e-9) ? 0.0 : Math.max(0.0, Math.min(1.0, -rel0 / (rel1 - rel0)));
+        double bx = body.getPrevX() + (body.getMinX() - body.getPrevX()) * t;
+        double sx = surface.getPrevX() + (surface.getMinX() - surface.getPrevX()) * t;
+        boolean overlap = (bx + body.getWidth() > sx) && (bx < sx + surface.getWidth());
+        return overlap ? t : -1;
+    }
+
+    // --- query di broadphase (risultati in nearStatic / nearDynamic) ---
+
+    private void queryStatic(Hitbox b, int layerMask) {
+        staticGrid.query(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY(), layerMask, nearStatic);
+        collisionTests += nearStatic.size();
+    }
+
+    /** Geometria statica lungo il tratto percorso nello step (prev ∪ corrente), estesa in basso di padBottom. */
+    private void queryStaticSwept(Hitbox b, double padBottom, int layerMask) {
+        staticGrid.query(Math.min(b.getPrevX(), b.getMinX()), Math.min(b.getPrevY(), b.getMinY()),
+                Math.max(b.getPrevX(), b.getMinX()) + b.getWidth(),
+                Math.max(b.getPrevY(), b.getMinY()) + b.getHeight() + padBottom,
+                layerMask, nearStatic);
+        collisionTests += nearStatic.size();
+    }
+
+    private void queryDynamic(Hitbox b, int layerMask) {
+        dynamicIndex.query(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY(), layerMask, nearDynamic);
+        collisionTests += nearDynamic.size();
+    }
+
+    /** Come queryStaticSwept, con margine STICK_DIST su tutti i lati: l'indice conosce solo la posa corrente. */
+    private void queryDynamicSwept(Hitbox b, int layerMask) {
+        dynamicIndex.query(Math.min(b.getPrevX(), b.getMinX()) - STICK_DIST, Math.min(b.getPrevY(), b.getMinY()) - STICK_DIST,
+                Math.max(b.getPrevX(), b.getMinX()) + b.getWidth() + STICK_DIST,
+                Math.max(b.getPrevY(), b.getMinY()) + b.getHeight() + STICK_DIST,
+                layerMask, nearDynamic);
+        collisionTests += nearDynamic.size();
+    }
+
+    private static boolean overlapsX(Hitbox a, Hitbox b) {
+        return (a.getMaxX() > b.getMinX()) && (a.getMinX() < b.getMaxX());
+    }
+
+    private static boolean isStickable(double top, double bottom) {
+        return top >= bottom - STICK_DIST && top <= bottom + STICK_DIST;
+    }
+
+    private static void bounceRing(Ring rr, Hitbox surface) {
+        rr.setY(surface.getMinY() - rr.getBounds().getHeight());
+        rr.setVY(-Math.abs(rr.getVY()) * 0.5);
+        rr.setVX(rr.getVX() * 0.95);
+    }
+
+    /**
+     * Copia nello snapshot tutto ciò che si muove (pose precedente e corrente di ogni sprite),
+     * gli eventi di presentazione in attesa e i valori HUD del player. Thread di simulazione.
+     */
+    public void capture(RenderSnapshot s) {
+        player.capture(s);
+        for (int i = 0, n = movingPlatforms.size(); i < n; i++) {
+            MovingPlatform mp = movingPlatforms.get(i);
+            s.add(mp.getShape(), mp.getBounds());
+        }
+        for (int i = 0, n = rings.size(); i < n; i++) {
+            Ring r = rings.get(i);
+            if (r.isDynamic()) s.add(r.getSprite(), r.getBounds());
+        }
+        for (int i = 0, n = enemies.size(); i < n; i++) {
+            EnemyBase e = enemies.get(i);
+            if (e.getSprite() != null) s.add(e.getSprite(), e.getBounds());
+        }
+        for (int i = 0, n = projectiles.size(); i < n; i++) {
+            Projectile p = projectiles.get(i);
+            s.add(p.getSprite(), p.getBounds());
+        }
+        for (int i = 0, n = loops.size(); i < n; i++) loops.get(i).capture(s);
+
+        CollisionEvents out = s.getEvents();
+        for (int i = 0, n = presentation.size(); i < n; i++) {
+            out.push(presentation.type(i), presentation.subject(i), presentation.value(i));
+        }
+        presentation.clear();
 
+        Hitbox pb = player.getBounds();
+        s.setFocus(pb.getPrevX(), pb.getX());
+        s.setRings(player.getRings());
     }
 
     @SuppressWarnings("unused")
-    private boolean isStomp(Player player, javafx.geometry.Bounds enemyBounds) {
-        javafx.geometry.Bounds pb = player.getBounds();
+    private boolean isStomp(Player player, Hitbox enemyBounds) {
+        Hitbox pb = player.getBounds();
         boolean above = pb.getMaxY() <= enemyBounds.getMinY() + 6;
         boolean falling;
         try { falling = player.getVelocityY() > 0; } catch (Throwable __) { falling = true; }
         return above && falling;
     }
-    public void addShieldPickup(ShieldPickup sp) { shieldPickups.add(sp); }
+    public void addShieldPickup(ShieldPickup sp) { sp.getBounds().setOwner(sp); RenderLayer.tag(sp.getSprite(), RenderLayer.PICKUP); shieldPickups.add(sp); levelPickups.add(sp); dynamicIndex.add(sp.getBounds()); }
 }
@@ -0,0 +1,86 @@
+package game.world;
+
+import javafx.scene.Node;
+
+/**
+ * Axis-aligned box of a collidable body, kept as plain doubles.
+ * - It is the authoritative position for collisions: no JavaFX Bounds are
+ *   allocated and no transforms are walked during CollisionManager.update().
+ * - Sprites are only synced from it: applyTo(Node) at construction, then through
+ *   game.sim.RenderSnapshot once per frame.
+ * - Accessor names mirror javafx.geometry.Bounds so collision code reads the same.
+ * - It also remembers the position at the start of the step (savePrevious()),
+ *   which swept tests use to find the time of impact.
+ * - Layer/mask and owner let the broadphase filter pairs and map a hit back to
+ *   the game object (see {@link CollisionLayer}). The body sets its filter in the
+ *   constructor; the owner is set by CollisionManager when the body is registered,
+ *   so a half-built object is never reachable through its hitbox.
+ */
+public final class Hitbox {
+    private double x, y, w, h;
+    private double prevX, prevY;
+    // filtro di collisione (vedi CollisionLayer) e oggetto di gioco proprietario
+    private int layer = CollisionLayer.NONE;
+    private int mask = CollisionLayer.NONE;
+    private Object owner;
+
+    public Hitbox(double x, double y, double w, double h) {
+        this.x = x;
+        this.y = y;
+        this.w = w;
+        this.h = h;
+        this.prevX = x;
+        this.prevY = y;
+    }
+
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getWidth() { return w; }
+    public double getHeight() { return h; }
+    public double getMinX() { return x; }
+    public double getMinY() { return y; }
+    public double getMaxX() { return x + w; }
+    public double getMaxY() { return y + h; }
+    public double getCenterX() { return x + w * 0.5; }
+    public double getCenterY() { return y + h * 0.5; }
+    public double getPrevX() { return prevX; }
+    public double getPrevY() { return prevY; }
+    public int getLayer() { return layer; }
+    public int getMask() { return mask; }
+    public Object getOwner() { return owner; }
+
+    /** Sets the collision filter (layer = what this is, mask = what it hits). */
+    public void setFilter(int layer, int mask) {
+        this.layer = layer;
+        this.mask = mask;
+    }
+
+    /** Game object hit through this box (CollisionManager, at registration). */
+    public void setOwner(Object owner) { this.owner = owner; }
+
+    public void setX(double x) { this.x = x; }
+    public void setY(double y) { this.y = y; }
+    public void setPosition(double x, double y) { this.x = x; this.y = y; }
+    public void setSize(double w, double h) { this.w = w; this.h = h; }
+    public void setCenter(double cx, double cy) { this.x = cx - w * 0.5; this.y = cy - h * 0.5; }
+    public void translate(double dx, double dy) { this.x += dx; this.y += dy; }
+
+    /** Marks the current position as the start of the step (call before moving). */
+    public void savePrevious() { prevX = x; prevY = y; }
+
+    /** Same semantics as Bounds.intersects: touching edges count as overlap. */
+    public boolean intersects(Hitbox o) {
+        return intersects(o.x, o.y, o.x + o.w, o.y + o.h);
+    }
+
+    public boolean intersects(double minX, double minY, double maxX, double maxY) {
+        return maxX >= x && minX <= x + w && maxY >= y && minY <= y + h;
+    }
+
+    /** Writes the position into the node's translate (layout and scale are left alone). */
+    public void applyTo(Node node) {
+        if (node == null) return;
+        node.setTranslateX(x);
+        node.setTranslateY(y);
+    }
+}
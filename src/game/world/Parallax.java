@@ -0,0 +1,57 @@
+package game.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Group;
+
+/**
+ * Parallax di un livello: layer {@link Background} indipendenti, dal più lontano al più
+ * vicino (ordine di aggiunta), ognuno con il proprio fattore di scorrimento.
+ * - Il Group radice resta fermo; scrollTo(camX) sposta ogni layer e lo riavvolge, così un
+ *   layer è sempre 2 ImageView e 1 texture anche su un livello di 5000+ px.
+ * - setCached() mette in cache i singoli layer (che si limitano a traslare), non la radice.
+ * - setViewWidth() adatta le copie di ogni layer alla larghezza della scena (resize).
+ */
+public final class Parallax {
+
+    /** Larghezza della vista finché la scena non dice la sua (setViewWidth). */
+    public static final double VIEW_W = 1280;
+
+    private final Group root;
+    private final List<Background> layers = new ArrayList<>();
+    private double viewW = VIEW_W;
+
+    public Parallax(Group root) {
+        this.root = root;
+    }
+
+    /** Aggiunge un layer davanti ai precedenti. factor: 0 = fermo, 1 = solidale al mondo. */
+    public Background addLayer(String path, double w, double h, double factor) {
+        Background b = new Background(root, path, w, h, factor, viewW);
+        layers.add(b);
+        return b;
+    }
+
+    /** Thread FX, dopo la camera. */
+    public void scrollTo(double camX) {
+        for (int i = 0, n = layers.size(); i < n; i++) layers.get(i).scrollTo(camX);
+    }
+
+    /** Larghezza della vista (scena): ogni layer aggiunge o toglie copie. Thread FX. */
+    public void setViewWidth(double width) {
+        if (width == viewW) return;
+        viewW = width;
+        for (int i = 0, n = layers.size(); i < n; i++) layers.get(i).setViewWidth(width);
+    }
+
+    public void setCached(boolean cached) {
+        for (Background b : layers) {
+            b.getNode().setCache(cached);
+            b.getNode().setCacheHint(javafx.scene.CacheHint.SPEED);
+        }
+    }
+
+    public Group getRoot() { return root; }
+    public int getLayerCount() { return layers.size(); }
+}
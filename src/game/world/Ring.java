@@ -1,14 +1,14 @@
 package game.world;
 
 
-import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.geometry.Bounds;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
 
 public class Ring {
     private final ImageView sprite;
+    private final Hitbox body;
     private boolean collected = false;
     private double vx = 0, vy = 0;
     private double ttl = Double.POSITIVE_INFINITY;
@@ -17,48 +17,55 @@ public class Ring {
 
     
 public Ring(Group root, double x, double y, double vx, double vy, double ttlSeconds) {
-    Image img = new Image("file:src/game/assets/images/world/ring.gif", 24, 24, true, true, true);
-    sprite = new ImageView(img);
-    sprite.setTranslateX(x);
-    sprite.setTranslateY(y);
+    sprite = new AtlasSprite(TextureAtlas.region("world/ring.gif"), 24, 24);
+    body = new Hitbox(x, y, 24, 24);
+    body.setFilter(CollisionLayer.PICKUP, CollisionLayer.PLAYER | CollisionLayer.SOLID | CollisionLayer.ONE_WAY);
+    body.applyTo(sprite);
     this.vx = vx;
     this.vy = vy;
     this.ttl = ttlSeconds;
     this.pickupDelay = PICKUP_DELAY_ON_DROP;
-    root.getChildren().add(sprite);
+    // root null: lo sprite viene agganciato dal CollisionManager (addRing)
+    if (root != null) root.getChildren().add(sprite);
 }
 
     public Ring(Group root, double x, double y) {
-        Image img = new Image("file:src/game/assets/images/world/ring.gif", 24, 24, true, true, true);
-        sprite = new ImageView(img);
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(y);
+        sprite = new AtlasSprite(TextureAtlas.region("world/ring.gif"), 24, 24);
+        body = new Hitbox(x, y, 24, 24);
+        body.setFilter(CollisionLayer.PICKUP, CollisionLayer.PLAYER | CollisionLayer.SOLID | CollisionLayer.ONE_WAY);
+        body.applyTo(sprite);
         root.getChildren().add(sprite);
     }
 
     public boolean isCollected() { return collected; }
+    /** Anello di livello di nuovo raccoglibile (riavvio sul posto, thread FX a simulazione ferma). */
+    public void reset() { collected = false; pickupDelay = 0.0; sprite.setVisible(true); }
     public void collect() { collected = true; sprite.setVisible(false); }
-    public Bounds getBounds() { return sprite.getBoundsInParent(); }
+    /** Solo lo stato (passo di fisica, thread di simulazione): lo sprite viene nascosto da collect(). */
+    public void markCollected() { collected = true; }
+    public Hitbox getBounds() { return body; }
     public ImageView getSprite() { return sprite; }
     public void update(double dt) {
         if (collected) return;
         if (ttl == Double.POSITIVE_INFINITY) return; // static level ring, no physics
         // simple physics: gravity + integrate
+        body.savePrevious();
         vy += 900 * dt;
-        sprite.setTranslateX(sprite.getTranslateX() + vx * dt);
-        sprite.setTranslateY(sprite.getTranslateY() + vy * dt);
+        body.translate(vx * dt, vy * dt);
         if (ttl != Double.POSITIVE_INFINITY) ttl -= dt;
         if (pickupDelay > 0) pickupDelay -= dt;
     }
     public boolean isExpired() { return ttl != Double.POSITIVE_INFINITY && ttl <= 0; }
     public boolean canBeCollected() { return !collected && pickupDelay <= 0; }
-    public double getX() { return sprite.getTranslateX(); }
-    public double getY() { return sprite.getTranslateY(); }
-    public void setX(double x) { sprite.setTranslateX(x); }
-    public void setY(double y) { sprite.setTranslateY(y); }
+    public double getX() { return body.getX(); }
+    public double getY() { return body.getY(); }
+    public void setX(double x) { body.setX(x); }
+    public void setY(double y) { body.setY(y); }
     public double getVX() { return vx; }
     public double getVY() { return vy; }
     public void setVX(double v) { vx = v; }
     public void setVY(double v) { vy = v; }
+    /** Anello piazzato dal livello (non uno di quelli persi dal player). */
+    public boolean isLevelRing() { return ttl == Double.POSITIVE_INFINITY; }
     public boolean isDynamic() { return ttl != Double.POSITIVE_INFINITY && !collected; }
 }
@@ -1,5 +1,6 @@
 package game.world;
 
+import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -8,6 +9,7 @@ import game.entities.Shield;
 /** Semplice pickup di scudo. Statico, con sprite. */
 public class ShieldPickup {
     private final ImageView sprite;
+    private final Hitbox body;
     private final Shield.Type type;
     private boolean collected = false;
 
@@ -20,22 +22,25 @@ public class ShieldPickup {
         sprite = new ImageView(img);
         sprite.setFitWidth(44);
         sprite.setFitHeight(44);
-        sprite.setTranslateX(x - 22);
-        sprite.setTranslateY(y - 22);
-        sprite.setSmooth(true);
+        body = new Hitbox(x - 22, y - 22, 44, 44);
+        body.setFilter(CollisionLayer.PICKUP, CollisionLayer.PLAYER);
+        body.applyTo(sprite);
+        sprite.setSmooth(game.util.Quality.smoothing());
         root.getChildren().add(sprite);
     }
 
-    public javafx.geometry.Bounds getBounds() { return sprite.getBoundsInParent(); }
+    public Hitbox getBounds() { return body; }
     public ImageView getSprite() { return sprite; }
     public Shield.Type getType() { return type; }
     public boolean isCollected() { return collected; }
+    /** Di nuovo raccoglibile: lo sprite lo riaggancia CollisionManager.reset(). */
+    public void reset() { collected = false; }
     public void collect() { collected = true; if (sprite.getParent() instanceof Group g) g.getChildren().remove(sprite); }
 
     private static Image safeImage(String... candidates) {
         for (String u : candidates) {
-            try { return new Image(u); } catch (Throwable ignored) {}
+            try { return loadImage(u); } catch (Throwable ignored) {}
         }
-        return new Image("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mP8/x8AAusB9lZ7p1EAAAAASUVORK5CYII=");
+        return loadImage("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mP8/x8AAusB9lZ7p1EAAAAASUVORK5CYII=");
     }
 }
@@ -0,0 +1,211 @@
+package game.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid (spatial hash) for static geometry.
+ * - Items are bucketed once at insert time by the cells their AABB covers.
+ * - Each occupied cell has its own slot (open addressing on the cell coordinates), so
+ *   query() only visits the cells overlapped by the query box and never entries of a
+ *   distant cell: the cost depends on what is nearby and not on the size of the level.
+ * - The table starts sized from the level extent (presize) and doubles when more than
+ *   half of it is occupied. Inserting is a load-time operation, querying allocates nothing.
+ * - Results are returned in insertion order, so callers that resolve contacts
+ *   one after the other behave exactly like a linear scan of the source list.
+ * - Each entry keeps its collision layer: entries outside the query mask are
+ *   rejected before the bounds test (see {@link CollisionLayer}).
+ */
+public final class SpatialGrid<T> {
+
+    private static final int MIN_CELLS = 16;        // power of two
+    private static final int MAX_PRESIZE = 1 << 16; // oltre cresce da sé
+
+    private static final class Entry<T> {
+        final T item;
+        final int seq;
+        final int layer;
+        final double minX, minY, maxX, maxY;
+        int stamp;
+
+        Entry(T item, int seq, int layer, double minX, double minY, double maxX, double maxY) {
+            this.item = item;
+            this.seq = seq;
+            this.layer = layer;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+    }
+
+    private static final class Cell<T> {
+        final int cx, cy;
+        final List<Entry<T>> entries = new ArrayList<>(4);
+
+        Cell(int cx, int cy) {
+            this.cx = cx;
+            this.cy = cy;
+        }
+    }
+
+    private final double cellSize;
+    private final double invCell;
+    private Cell<?>[] table;
+    private int mask;
+    private int occupied = 0;
+
+    // scratch per query (niente allocazioni nel loop di gioco)
+    private final List<Entry<T>> hits = new ArrayList<>(32);
+    private int stamp = 0;
+    private int size = 0;
+
+    public SpatialGrid(double cellSize) {
+        this(cellSize, MIN_CELLS);
+    }
+
+    /** expectedCells: occupied cells to hold before the first rehash. */
+    public SpatialGrid(double cellSize, int expectedCells) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0");
+        this.cellSize = cellSize;
+        this.invCell = 1.0 / cellSize;
+        allocate(capacityFor(expectedCells));
+    }
+
+    public double getCellSize() { return cellSize; }
+    public int size() { return size; }
+    /** Cells holding at least one entry. */
+    public int getCellCount() { return occupied; }
+    /** Slots of the cell table (for tests and stats). */
+    public int getCapacity() { return table.length; }
+
+    /**
+     * Sizes the table for a level spanning width x height (world units), so building it
+     * does not rehash. Only grows; call before the inserts.
+     */
+    public void presize(double width, double height) {
+        long cells = (long) (Math.ceil(Math.max(0, width) * invCell) + 1)
+                   * (long) (Math.ceil(Math.max(0, height) * invCell) + 1);
+        int n = capacityFor((int) Math.min(cells, MAX_PRESIZE));
+        if (n > table.length) rehash(n);
+    }
+
+    /** Registers an item with its (fixed) bounds and collision layer. */
+    public void insert(T item, Hitbox b) {
+        insert(item, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY(), b.getLayer());
+    }
+
+    /** Registers an item with its (fixed) axis-aligned bounds. */
+    public void insert(T item, double minX, double minY, double maxX, double maxY, int layer) {
+        Entry<T> e = new Entry<>(item, size++, layer, minX, minY, maxX, maxY);
+        int cx0 = cell(minX), cx1 = cell(maxX);
+        int cy0 = cell(minY), cy1 = cell(maxY);
+        // una cella per slot: ogni (cx, cy) del box è distinta, l'entry non può ripetersi
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                cellFor(cx, cy).entries.add(e);
+            }
+        }
+    }
+
+    /**
+     * Appends to {@code out} every item whose layer is in {@code layerMask} and whose
+     * bounds overlap the given box (edges included). {@code out} is cleared first.
+     */
+    public void query(double minX, double minY, double maxX, double maxY, int layerMask, List<T> out) {
+        out.clear();
+        hits.clear();
+        if (size == 0) return;
+        int s = ++stamp;
+        int cx0 = cell(minX), cx1 = cell(maxX);
+        int cy0 = cell(minY), cy1 = cell(maxY);
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                Cell<T> c = find(cx, cy);
+                if (c == null) continue;
+                List<Entry<T>> b = c.entries;
+                for (int i = 0, n = b.size(); i < n; i++) {
+                    Entry<T> e = b.get(i);
+                    if (e.stamp == s) continue;
+                    e.stamp = s;
+                    if ((e.layer & layerMask) == 0) continue;
+                    if (e.maxX < minX || e.minX > maxX || e.maxY < minY || e.minY > maxY) continue;
+                    insertSorted(e);
+                }
+            }
+        }
+        for (int i = 0, n = hits.size(); i < n; i++) out.add(hits.get(i).item);
+    }
+
+    public void clear() {
+        Arrays.fill(table, null);
+        occupied = 0;
+        size = 0;
+    }
+
+    // insertion sort by seq: the hit list is tiny, this keeps results in insertion order
+    private void insertSorted(Entry<T> e) {
+        int i = hits.size();
+        hits.add(e);
+        while (i > 0 && hits.get(i - 1).seq > e.seq) {
+            hits.set(i, hits.get(i - 1));
+            i--;
+        }
+        hits.set(i, e);
+    }
+
+    private int cell(double v) {
+        return (int) Math.floor(v * invCell);
+    }
+
+    private static int hash(int cx, int cy) {
+        int h = cx * 0x9E3779B1 + cy * 0x85EBCA77;
+        return h ^ (h >>> 15);
+    }
+
+    // tabella a metà piena al massimo: le sonde lineari restano corte
+    private static int capacityFor(int cells) {
+        int n = MIN_CELLS;
+        while (n < cells * 2L && n < (1 << 30)) n <<= 1;
+        return n;
+    }
+
+    private void allocate(int n) {
+        table = new Cell<?>[n];
+        mask = n - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cell<T> find(int cx, int cy) {
+        for (int i = hash(cx, cy) & mask; ; i = (i + 1) & mask) {
+            Cell<T> c = (Cell<T>) table[i];
+            if (c == null) return null;
+            if (c.cx == cx && c.cy == cy) return c;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cell<T> cellFor(int cx, int cy) {
+        int i = hash(cx, cy) & mask;
+        for (Cell<T> c; (c = (Cell<T>) table[i]) != null; i = (i + 1) & mask) {
+            if (c.cx == cx && c.cy == cy) return c;
+        }
+        Cell<T> c = new Cell<>(cx, cy);
+        table[i] = c;
+        if (++occupied * 2 > table.length) rehash(table.length << 1);
+        return c;
+    }
+
+    // sposta le celle (non le entry) in una tabella più grande
+    private void rehash(int n) {
+        Cell<?>[] old = table;
+        allocate(n);
+        for (Cell<?> c : old) {
+            if (c == null) continue;
+            int i = hash(c.cx, c.cy) & mask;
+            while (table[i] != null) i = (i + 1) & mask;
+            table[i] = c;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package game.world;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic broadphase (sweep-and-prune on the X axis) for moving objects
+ * such as rings, projectiles, enemies and pickups.
+ * - Proxies are kept sorted by minX; move() re-reads one object's bounds and
+ *   restores the order locally, so frame-to-frame coherence keeps it O(1).
+ * - query()/queryRadius() binary-search the sorted list and only visit the
+ *   objects whose X interval can overlap, i.e. O(log n + k).
+ * - Proxies cache the collision layer, so objects outside the query mask are
+ *   skipped before the bounds test (see {@link CollisionLayer}).
+ * - remove() is O(1): the proxy is only marked (layer NONE, so queries skip it) and
+ *   compact() drops the marked ones in a single pass, once per step. A burst of N
+ *   despawns costs O(n) instead of O(n * N). compact() also recomputes the widest live
+ *   proxy, so one wide object no longer widens every query after it is gone.
+ */
+public final class SweepAndPrune<T> {
+
+    /** How the index reads the current bounds of an object. */
+    public interface BoundsFn<T> {
+        Hitbox boundsOf(T item);
+    }
+
+    private static final class Proxy<T> {
+        final T item;
+        double minX, minY, maxX, maxY;
+        int layer;
+        int slot;
+        boolean removed;
+
+        Proxy(T item) { this.item = item; }
+    }
+
+    private final BoundsFn<T> boundsFn;
+    private final List<Proxy<T>> sorted = new ArrayList<>();
+    private final Map<T, Proxy<T>> proxies = new IdentityHashMap<>();
+    // larghezza massima (ricalcolata da compact()): serve per sapere fin dove scorrere a sinistra
+    private double maxWidth = 0.0;
+    private int removedCount = 0;
+
+    public SweepAndPrune(BoundsFn<T> boundsFn) {
+        this.boundsFn = boundsFn;
+    }
+
+    /** Live objects (removed ones still waiting for compact() are not counted). */
+    public int size() { return sorted.size() - removedCount; }
+
+    // per i test: quanto query() scorre a sinistra di minX
+    double getMaxWidth() { return maxWidth; }
+
+    public void add(T item) {
+        if (item == null || proxies.containsKey(item)) return;
+        Proxy<T> p = new Proxy<>(item);
+        proxies.put(item, p);
+        p.slot = sorted.size();
+        sorted.add(p);
+        refresh(p);
+    }
+
+    /** Marks the object as gone: queries skip it from now on, compact() frees its slot. */
+    public void remove(T item) {
+        Proxy<T> p = proxies.remove(item);
+        if (p == null) return;
+        p.removed = true;
+        p.layer = CollisionLayer.NONE;
+        removedCount++;
+    }
+
+    /** Drops the removed proxies (one pass, order kept) and recomputes maxWidth. Once per step. */
+    public void compact() {
+        if (removedCount == 0) return;
+        int w = 0;
+        double widest = 0.0;
+        for (int i = 0, n = sorted.size(); i < n; i++) {
+            Proxy<T> p = sorted.get(i);
+            if (p.removed) continue;
+            p.slot = w;
+            sorted.set(w++, p);
+            widest = Math.max(widest, p.maxX - p.minX);
+        }
+        for (int i = sorted.size() - 1; i >= w; i--) sorted.remove(i); // dalla coda: niente shift
+        maxWidth = widest;
+        removedCount = 0;
+    }
+
+    /** Re-reads the bounds of an object that moved and keeps the list sorted. */
+    public void move(T item) {
+        Proxy<T> p = proxies.get(item);
+        if (p != null) refresh(p);
+    }
+
+    public void clear() {
+        sorted.clear();
+        proxies.clear();
+        maxWidth = 0.0;
+        removedCount = 0;
+    }
+
+    /** Appends the objects in {@code layerMask} whose bounds overlap the box (edges included); {@code out} is cleared first. */
+    public void query(double minX, double minY, double maxX, double maxY, int layerMask, List<T> out) {
+        out.clear();
+        int n = sorted.size();
+        if (n == 0) return;
+        for (int i = lowerBound(minX - maxWidth); i < n; i++) {
+            Proxy<T> p = sorted.get(i);
+            if (p.minX > maxX) break;
+            if ((p.layer & layerMask) == 0) continue;
+            if (p.maxX < minX || p.maxY < minY || p.minY > maxY) continue;
+            out.add(p.item);
+        }
+    }
+
+    /** Appends the objects in {@code layerMask} whose bounds overlap the circle; {@code out} is cleared first. */
+    public void queryRadius(double cx, double cy, double radius, int layerMask, List<T> out) {
+        out.clear();
+        int n = sorted.size();
+        if (n == 0) return;
+        double r2 = radius * radius;
+        for (int i = lowerBound(cx - radius - maxWidth); i < n; i++) {
+            Proxy<T> p = sorted.get(i);
+            if (p.minX > cx + radius) break;
+            if ((p.layer & layerMask) == 0) continue;
+            double nx = Math.max(p.minX, Math.min(cx, p.maxX));
+            double ny = Math.max(p.minY, Math.min(cy, p.maxY));
+            double dx = cx - nx, dy = cy - ny;
+            if (dx * dx + dy * dy <= r2) out.add(p.item);
+        }
+    }
+
+    private void refresh(Proxy<T> p) {
+        Hitbox b = boundsFn.boundsOf(p.item);
+        p.minX = b.getMinX();
+        p.minY = b.getMinY();
+        p.maxX = b.getMaxX();
+        p.maxY = b.getMaxY();
+        p.layer = b.getLayer();
+        double w = p.maxX - p.minX;
+        if (w > maxWidth) maxWidth = w;
+
+        // insertion step: gli oggetti si spostano di poco tra un frame e l'altro
+        int i = p.slot;
+        while (i > 0 && sorted.get(i - 1).minX > p.minX) {
+            Proxy<T> o = sorted.get(i - 1);
+            sorted.set(i, o);
+            o.slot = i;
+            i--;
+        }
+        int n = sorted.size();
+        while (i < n - 1 && sorted.get(i + 1).minX < p.minX) {
+            Proxy<T> o = sorted.get(i + 1);
+            sorted.set(i, o);
+            o.slot = i;
+            i++;
+        }
+        sorted.set(i, p);
+        p.slot = i;
+    }
+
+    // primo indice con minX >= x
+    private int lowerBound(double x) {
+        int lo = 0, hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted.get(mid).minX < x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -5,19 +5,22 @@ import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.geometry.Bounds;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 public class FinishGate {
     private final ImageView sprite;
+    private final Hitbox bounds;
 
     public FinishGate(Group root, double x, double groundY) {
-        Image img = new Image("file:src/game/assets/images/ui/level_finish.png", 64, 96, true, true, true);
+        Image img = loadImage("file:src/game/assets/images/ui/level_finish.png", 64, 96, true, true, true);
         sprite = new ImageView(img);
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(groundY - 96);
+        bounds = new Hitbox(x, groundY - 96, 64, 96);
+        bounds.setFilter(CollisionLayer.TRIGGER, CollisionLayer.PLAYER);
+        bounds.applyTo(sprite);
         root.getChildren().add(sprite);
     }
 
-    public Bounds getBounds() { return sprite.getBoundsInParent(); }
+    public Hitbox getBounds() { return bounds; }
     public ImageView getSprite() { return sprite; }
 }
@@ -1,13 +1,15 @@
 package game.world.elements;
 
-import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.shape.Circle;
 import javafx.scene.paint.Color;
-import javafx.geometry.Bounds;
 import game.entities.Player;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
+import game.sim.RenderSnapshot;
 
 /**
  * LoopDeLoop "classico" (stile Sonic):
@@ -18,12 +20,14 @@ import game.entities.Player;
  *
  * Nota: l'aggiornamento viene richiamato da CollisionManager.update()
  *       tramite l.update(dt, player). Se nessun loop è attaccato, la chiamata
- *       ritorna semplicemente false.
+ *       ritorna semplicemente false. update() gira sul thread di simulazione e non
+ *       tocca i nodi: follower e rotazione del player passano da capture().
  */
 public class LoopDeLoop {
     private final ImageView sprite;
     private final ImageView follower;   // piccolo sprite che segue la circonferenza
     private final Circle collider;
+    private final Hitbox bounds;
 
     // Stato fisico/geom.
     private final double cx;
@@ -45,6 +49,10 @@ public class LoopDeLoop {
     private double theta = Math.PI;     // angolo corrente (rad), 0 = lato destro, PI = lato sinistro
     private double speed = 0.0;         // velocità tangenziale in px/s
 
+    // Stato del follower (copiato nello snapshot da capture())
+    private double followerX, followerY, followerPrevX, followerPrevY, followerRot;
+    private boolean followerVisible = false;
+
     // Config: consenti attacco dai lati? (richiesto: NO)
     private static final boolean ALLOW_SIDE_ENTRY = false;
 
@@ -59,20 +67,18 @@ public class LoopDeLoop {
 
     // Signature richiesta dal progetto: (Group, int, double, int)
     public LoopDeLoop(Group root, int x, double y, int radius) {
-        Image img = new Image("file:src/game/assets/images/world/loop.png",
-                radius * 2, radius * 2, true, true, true);
-        sprite = new ImageView(img);
+        sprite = new AtlasSprite(TextureAtlas.region("world/loop.png"), radius * 2, radius * 2);
         sprite.setTranslateX(x - radius);
         sprite.setTranslateY(y - radius);
         root.getChildren().add(sprite);
 
         // Sprite segnapercorso che seguirà il loop (decorativo)
-        Image ringImg = new Image("file:src/game/assets/images/world/ring.png",
-                24, 24, true, true, true);
-        follower = new ImageView(ringImg);
+        follower = new AtlasSprite(TextureAtlas.region("world/ring.png"), 24, 24);
         follower.setVisible(false);
         follower.setTranslateX(x - 12);
         follower.setTranslateY(y - radius - 12);
+        followerX = followerPrevX = x - 12;
+        followerY = followerPrevY = y - radius - 12;
         root.getChildren().add(follower);
 
         collider = new Circle(x, y, radius);
@@ -83,15 +89,35 @@ public class LoopDeLoop {
         this.cx = x;
         this.cy = y;
         this.r  = radius;
+        this.bounds = new Hitbox(x - radius, y - radius, radius * 2.0, radius * 2.0);
+        this.bounds.setFilter(CollisionLayer.TRIGGER, CollisionLayer.PLAYER);
+    }
+
+    public Hitbox getBounds() { return bounds; }
+    /** Nodi del loop (sprite, follower, collider): il follower resta entro il raggio. */
+    public ImageView getSprite() { return sprite; }
+    public javafx.scene.Node[] getNodes() { return new javafx.scene.Node[]{ sprite, follower, collider }; }
+
+    /** Stato iniziale (riavvio del livello): staccato, follower nascosto in cima al loop. */
+    public void reset() {
+        attached = false;
+        reattachCooldown = 0.0;
+        simpleAnimating = false;
+        animTime = 0.0;
+        followerVisible = false;
+        followerX = followerPrevX = cx - 12;
+        followerY = followerPrevY = cy - r - 12;
+        followerRot = 0.0;
     }
 
-    public Bounds getBounds() { return collider.getBoundsInParent(); }
     public double getCenterX() { return cx; }
     public double getCenterY() { return cy; }
     public double getRadius()  { return r; }
 
     /** Ritorna true se in questo frame il player è attaccato al loop (agganciato). */
     public boolean update(double dt, Player p) {
+        followerPrevX = followerX;
+        followerPrevY = followerY;
         // gestisci cooldown di ri-aggancio
         if (reattachCooldown > 0) reattachCooldown -= dt;
         if (!attached) {
@@ -196,27 +222,28 @@ public class LoopDeLoop {
         setTangentialVelocity(p);
 
         // attiva e posiziona il follower
-        if (follower != null) {
-            follower.setVisible(true);
-            follower.setTranslateX(x - 12);
-            follower.setTranslateY(y - 12);
-            follower.setRotate(Math.toDegrees(theta));
-        }
+        followerVisible = true;
+        followerX = followerPrevX = x - 12;
+        followerY = followerPrevY = y - 12;
+        followerRot = Math.toDegrees(theta);
     }
 
     private void detach(Player p) {
         attached = false;
         reattachCooldown = REATTACH_COOLDOWN;
-        try { p.getSprite().setRotate(0); } catch (Throwable ignored) {}
+        p.setSpriteRotate(0);
+
+        // Uscita con i piedi sulla tangente inferiore del loop: niente compenetrazione
+        // col terreno (il CollisionManager usa test swept, non tolleranze)
+        Hitbox pb = p.getBounds();
+        p.setPosition(pb.getX(), cy + r - pb.getHeight());
 
         // Manteniamo la velocità tangenziale corrente al momento dello stacco
         setTangentialVelocity(p);
         p.setOnGround(false);
 
         // nascondi follower in uscita
-        if (follower != null) {
-            follower.setVisible(false);
-        }
+        followerVisible = false;
     }
 
     private void setTangentialVelocity(Player p) {
@@ -248,7 +275,7 @@ public class LoopDeLoop {
             setTangentialVelocity(p);
 
             // ruota lo sprite per l'effetto visivo
-            try { p.getSprite().setRotate(Math.toDegrees(theta)); } catch (Throwable ignored) {}
+            p.setSpriteRotate(Math.toDegrees(theta));
 
             if (animTime >= animDuration) {
                 // termina un giro
@@ -263,4 +290,11 @@ public class LoopDeLoop {
             return;
         }
     }
+
+    /** Copia il follower nello snapshot (thread di simulazione). */
+    public void capture(RenderSnapshot s) {
+        int i = s.add(follower, followerPrevX, followerPrevY, followerX, followerY);
+        s.setVisible(i, followerVisible);
+        s.setRotate(i, followerRot);
+    }
 }
@@ -1,16 +1,20 @@
 package game.world.elements;
 
+import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Rectangle;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /** Platform that oscillates along an axis. */
 public class MovingPlatform {
     public enum Axis { HORIZONTAL, VERTICAL }
 
     private final Rectangle rect;
+    private final Hitbox bounds;
     private double deltaX = 0.0, deltaY = 0.0;
     private final Axis axis;
     private final double origin;
@@ -25,20 +29,15 @@ public class MovingPlatform {
         this.speed = speed;
 
         this.rect = new Rectangle(width, 20);
-
-        if (axis == Axis.HORIZONTAL) {
-            this.origin = x;
-            rect.setTranslateX(x);
-            rect.setTranslateY(y);
-        } else {
-            this.origin = y;
-            rect.setTranslateX(x);
-            rect.setTranslateY(y);
-        }
+        this.bounds = new Hitbox(x, y, width, 20);
+        this.bounds.setFilter(CollisionLayer.ONE_WAY, CollisionLayer.PLAYER | CollisionLayer.PICKUP);
+        this.origin = (axis == Axis.HORIZONTAL) ? x : y;
+        bounds.applyTo(rect);
 
         try {
-            Image tex = new Image("file:src/game/assets/images/world/moving_platform.png");
-            rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            Image tex = loadImage("file:src/game/assets/images/world/moving_platform.png");
+            if (tex != null) rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            else rect.setFill(Color.DARKGRAY); // headless
         } catch (Throwable t) {
             rect.setFill(Color.DARKGRAY);
         }
@@ -48,13 +47,15 @@ public class MovingPlatform {
 
     /** Update platform position with delta time in seconds. */
     public void update(double dt) {
+        bounds.savePrevious();
+
         // advance time and compute oscillation offset
         t += dt * speed;
         double offset = Math.sin(t) * amplitude;
 
         // start from current position
-        double newX = rect.getTranslateX();
-        double newY = rect.getTranslateY();
+        double newX = bounds.getX();
+        double newY = bounds.getY();
 
         // move along the chosen axis
         if (axis == Axis.HORIZONTAL) {
@@ -63,16 +64,24 @@ public class MovingPlatform {
             newY = origin + offset;
         }
 
-        // compute deltas relative to current transform
-        deltaX = newX - rect.getTranslateX();
-        deltaY = newY - rect.getTranslateY();
+        // compute deltas relative to current position
+        deltaX = newX - bounds.getX();
+        deltaY = newY - bounds.getY();
+
+        bounds.setPosition(newX, newY);
+    }
 
-        // apply transform
-        rect.setTranslateX(newX);
-        rect.setTranslateY(newY);
+    /** Back to the build-time pose and phase (level restart). */
+    public void reset() {
+        t = 0.0;
+        deltaX = 0.0;
+        deltaY = 0.0;
+        if (axis == Axis.HORIZONTAL) bounds.setX(origin); else bounds.setY(origin);
+        bounds.savePrevious();
     }
 
     public Rectangle getShape() { return rect; }
+    public Hitbox getBounds() { return bounds; }
     public double getDeltaX() { return deltaX; }
     public double getDeltaY() { return deltaY; }
 }
@@ -1,28 +1,34 @@
 package game.world.elements;
 
+import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Rectangle;
-import javafx.geometry.Bounds;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /** Solid obstacle that hurts the player. */
 public class Obstacle {
     private final Rectangle rect;
+    private final Hitbox bounds;
 
     public Obstacle(Group root, double x, double y, double w, double h) {
         rect = new Rectangle(w, h);
-        rect.setTranslateX(x);
-        rect.setTranslateY(y);
+        bounds = new Hitbox(x, y, w, h);
+        bounds.setFilter(CollisionLayer.TRIGGER, CollisionLayer.PLAYER);
+        bounds.applyTo(rect);
         try {
-            Image tex = new Image("file:src/game/assets/images/world/obstacle.png");
-            rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            Image tex = loadImage("file:src/game/assets/images/world/obstacle.png");
+            if (tex != null) rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            else rect.setFill(Color.DARKRED); // headless
         } catch (Throwable t) {
             rect.setFill(Color.DARKRED);
         }
         root.getChildren().add(rect);
     }
 
-    public Bounds getBounds() { return rect.getBoundsInParent(); }
+    public Rectangle getShape() { return rect; }
+    public Hitbox getBounds() { return bounds; }
 }
\ No newline at end of file
@@ -1,14 +1,18 @@
 package game.world.elements;
 
+import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Rectangle;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /** Axis-aligned platform used for collisions and walking. */
 public class Platform {
     private final Rectangle rect;
+    private final Hitbox bounds; // statica: non cambia mai
 
     // Signature required by Level1: (Group, int, double, int)
     public Platform(Group root, int x, double y, int width) {
@@ -16,11 +20,13 @@ public class Platform {
     }
     public Platform(Group root, int x, double y, int width, int height) {
         rect = new Rectangle(width, height);
-        rect.setTranslateX(x);
-        rect.setTranslateY(y);
+        bounds = new Hitbox(x, y, width, height);
+        bounds.setFilter(CollisionLayer.SOLID, CollisionLayer.PLAYER | CollisionLayer.ENEMY_PROJECTILE | CollisionLayer.PICKUP);
+        bounds.applyTo(rect);
         try {
-            Image tex = new Image("file:src/game/assets/images/world/platform.png");
-            rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            Image tex = loadImage("file:src/game/assets/images/world/platform.png");
+            if (tex != null) rect.setFill(new ImagePattern(tex, 0, 0, tex.getWidth(), tex.getHeight(), false));
+            else rect.setFill(Color.GRAY); // headless
         } catch (Throwable t) {
             rect.setFill(Color.GRAY);
         }
@@ -28,6 +34,7 @@ public class Platform {
     }
 
     public Rectangle getShape() { return rect; }
+    public Hitbox getBounds() { return bounds; }
 
     // Overloads to accept double X positions used by some levels
     public Platform(Group root, double x, double y, int width) {
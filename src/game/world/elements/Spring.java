@@ -2,11 +2,13 @@ package game.world.elements;
 
 import static game.util.ResourceUtil.*;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
-import javafx.geometry.Bounds;
+import game.render.AtlasSprite;
+import game.render.TextureAtlas;
+import game.world.CollisionLayer;
+import game.world.Hitbox;
 
 /**
  * Molla (Spring) con hitbox affidabile.
@@ -16,6 +18,7 @@ import javafx.geometry.Bounds;
  */
 public class Spring {
     private final ImageView sprite;
+    private final Hitbox bounds;
     private final double power;
 
     /**
@@ -27,33 +30,25 @@ public class Spring {
     public Spring(Group root, double x, double y, double power) {
         this.power = power;
 
-        Image img = null;
-        try {
-            // Percorso classpath (preferito)
-            img = image("/assets/images/world/spring.png");
-        } catch (Throwable ignored) {
-            try {
-                // Fallback in dev
-                img = new Image("file:src/game/assets/images/world/spring.png");
-            } catch (Throwable __) {
-                // last resort: 1x1 transparent pixel to avoid NPE
-                img = new Image("data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR4nGNgYAAAAAMAASsJTYQAAAAASUVORK5CYII=");
-            }
-        }
-
-        sprite = new ImageView(img);
+        // atlas (o file singolo); null in headless o se manca l'asset
+        TextureAtlas.Region region = TextureAtlas.region("world/spring.png");
+        sprite = new AtlasSprite(region);
         // Allinea come gli altri elementi del mondo (Rectangle usa translateX/Y)
-        sprite.setTranslateX(x);
-        sprite.setTranslateY(y);
+        // headless: nessuna immagine, la dimensione arriva dall'header del file
+        double[] size = (region != null) ? new double[]{ region.getWidth(), region.getHeight() }
+                                         : imageSize("/assets/images/world/spring.png");
+        bounds = new Hitbox(x, y, size[0], size[1]);
+        bounds.setFilter(CollisionLayer.TRIGGER, CollisionLayer.PLAYER);
+        bounds.applyTo(sprite);
         sprite.setPreserveRatio(false); // usa dimensioni reali dell'immagine
-        sprite.setSmooth(true);
+        sprite.setSmooth(game.util.Quality.smoothing());
 
         root.getChildren().add(sprite);
     }
 
     /** Limiti dell'hitbox della molla (coincide con l'immagine). */
-    public Bounds getBounds() {
-        return sprite.getBoundsInParent();
+    public Hitbox getBounds() {
+        return bounds;
     }
 
     /** Forza del rimbalzo verso l'alto. */
@@ -0,0 +1,48 @@
+package game.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javafx.scene.Group;
+
+import org.junit.jupiter.api.Test;
+
+import game.sim.HeadlessLevel;
+
+/**
+ * Level 1 built headless, culled for a 1280 px view at a few camera positions.
+ * The counts are those of the current layout (28 static nodes in 10 chunks): when the
+ * level changes, update them from the failure message.
+ */
+class ViewportCullerTest {
+
+    private static final double VIEW_W = 1280.0;
+    private static final int STATIC_NODES = 28;
+
+    @Test
+    void level1VisibleAndCulledCounts() {
+        HeadlessLevel h = HeadlessLevel.create(1);
+        Group world = h.getWorld();
+        int children = world.getChildren().size();
+        ViewportCuller culler = new ViewportCuller(world);
+        culler.build();
+        assertEquals(10, culler.getChunkCount());
+        int dynamic = world.getChildren().size();
+        assertEquals(children - STATIC_NODES, dynamic, "static nodes moved into chunks");
+
+        assertCounts(culler, world, dynamic, 0.0, 3, 12, 16);
+        assertCounts(culler, world, dynamic, 2500.0, 3, 10, 18);
+        assertCounts(culler, world, dynamic, 5000.0, 3, 3, 25);
+        assertCounts(culler, world, dynamic, 0.0, 3, 12, 16); // tornando indietro
+    }
+
+    private static void assertCounts(ViewportCuller culler, Group world, int dynamic, double camX,
+                                     int chunks, int visible, int culled) {
+        culler.update(camX, VIEW_W);
+        String at = "camX=" + camX;
+        assertEquals(chunks, culler.getVisibleChunks(), at);
+        assertEquals(visible, culler.getVisibleNodes(), at);
+        assertEquals(culled, culler.getCulledNodes(), at);
+        assertEquals(STATIC_NODES, culler.getVisibleNodes() + culler.getCulledNodes(), at);
+        assertEquals(dynamic + chunks, world.getChildren().size(), at + ": only visible chunks attached");
+    }
+}
@@ -0,0 +1,46 @@
+package game.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.scene.input.KeyCode;
+
+import org.junit.jupiter.api.Test;
+
+class HeadlessLevelTest {
+
+    private static String run(HeadlessLevel h) {
+        h.press(KeyCode.RIGHT);
+        h.run(6000);
+        return h.getOutcome() + " " + h.getTicks() + " x=" + h.getPlayer().getX();
+    }
+
+    @Test
+    void sameSeedSameRun() {
+        String first = run(HeadlessLevel.create(1));
+        for (int i = 0; i < 3; i++) assertEquals(first, run(HeadlessLevel.create(1)));
+    }
+
+    @Test
+    void pausedLoopDoesNotStep() {
+        SimulationLoop loop = HeadlessLevel.create(1).getLoop();
+        loop.advance(0.05);
+        long steps = loop.getSteps();
+        loop.setPaused(true);
+        for (int i = 0; i < 10; i++) loop.advance(0.05);
+        assertEquals(steps, loop.getSteps());
+        loop.setPaused(false);
+        loop.advance(0.05);
+        assertTrue(loop.getSteps() > steps);
+    }
+
+    @Test
+    void resetRepeatsTheRun() {
+        HeadlessLevel h = HeadlessLevel.create(1);
+        String first = run(h);
+        for (int i = 0; i < 3; i++) {
+            h.reset();
+            assertEquals(first, run(h));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package game.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import game.world.CollisionEvents;
+
+class SnapshotExchangeTest {
+
+    private static void step(SnapshotExchange ex, Object... subjects) {
+        RenderSnapshot s = ex.claim();
+        for (Object o : subjects) s.getEvents().push(CollisionEvents.ATTACH, o);
+        ex.publish(s, 0L);
+    }
+
+    private static List<Object> events(RenderSnapshot s) {
+        List<Object> out = new ArrayList<>();
+        CollisionEvents ev = s.getEvents();
+        for (int i = 0; i < ev.size(); i++) out.add(ev.subject(i));
+        return out;
+    }
+
+    @Test
+    void twoPublishesBeforeOneAcquireKeepStepOrder() {
+        SnapshotExchange ex = new SnapshotExchange();
+        step(ex, "attach");
+        step(ex, "despawn");
+        RenderSnapshot s = ex.acquire();
+        assertTrue(s.isFresh());
+        assertEquals(List.of("attach", "despawn"), events(s));
+
+        step(ex, "next");
+        s = ex.acquire();
+        assertTrue(s.isFresh());
+        assertEquals(List.of("next"), events(s), "consumed events must not come back");
+    }
+
+    @Test
+    void acquireWithoutPublishIsNotFresh() {
+        SnapshotExchange ex = new SnapshotExchange();
+        step(ex, "a");
+        assertTrue(ex.acquire().isFresh());
+        assertFalse(ex.acquire().isFresh());
+    }
+
+    @Test
+    void manyPublishesAcrossThreadsArriveOnceAndInOrder() throws InterruptedException {
+        SnapshotExchange ex = new SnapshotExchange();
+        int steps = 20_000;
+        Thread sim = new Thread(() -> {
+            for (int i = 0; i < steps; i++) step(ex, i);
+        });
+        sim.start();
+        List<Object> seen = new ArrayList<>();
+        while (sim.isAlive()) {
+            RenderSnapshot s = ex.acquire();
+            if (s.isFresh()) seen.addAll(events(s));
+        }
+        sim.join();
+        RenderSnapshot last = ex.acquire(); // l'ultimo publish, se non ancora visto
+        if (last.isFresh()) seen.addAll(events(last));
+        assertEquals(steps, seen.size());
+        for (int i = 0; i < steps; i++) assertEquals(i, seen.get(i));
+    }
+}
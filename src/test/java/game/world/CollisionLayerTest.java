@@ -0,0 +1,109 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.scene.Group;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import game.entities.Player;
+import game.entities.Projectile;
+import game.entities.Shield;
+import game.entities.WalkerEnemy;
+import game.util.ResourceUtil;
+import game.world.elements.MovingPlatform;
+import game.world.elements.Obstacle;
+import game.world.elements.Platform;
+import game.world.elements.Spring;
+
+/**
+ * Layer/mask pruning with the filters the game objects really set: every body overlaps
+ * every other, so whether a query returns one is decided by the masks alone.
+ * Static bodies go in a SpatialGrid, moving ones in a SweepAndPrune, as in CollisionManager.
+ */
+class CollisionLayerTest {
+
+    private static final Map<String, Hitbox> BODIES = new LinkedHashMap<>();
+    private static final SpatialGrid<Hitbox> STATIC = new SpatialGrid<>(256.0);
+    private static final SweepAndPrune<Hitbox> DYNAMIC = new SweepAndPrune<>(b -> b);
+
+    @BeforeAll
+    static void build() {
+        ResourceUtil.setHeadless(true);
+        Group g = new Group();
+        BODIES.put("player", new Player(g, 100, 100).getBounds());
+        BODIES.put("platform", new Platform(g, 90, 110.0, 100).getBounds());
+        BODIES.put("obstacle", new Obstacle(g, 90, 110, 40, 40).getBounds());
+        BODIES.put("spring", new Spring(g, 100, 110, 900).getBounds());
+        BODIES.put("movingPlatform", new MovingPlatform(g, 90, 110.0, 100, MovingPlatform.Axis.HORIZONTAL, 0, 0).getBounds());
+        BODIES.put("ring", new Ring(g, 100, 100).getBounds());
+        BODIES.put("shield", new ShieldPickup(g, 100, 100, Shield.Type.NORMAL).getBounds());
+        BODIES.put("enemy", new WalkerEnemy(g, 100, 100).getBounds());
+        BODIES.put("projectile", new Projectile(g, 100, 100, 0, 0).getBounds());
+        for (String s : List.of("platform", "obstacle", "spring")) STATIC.insert(BODIES.get(s), BODIES.get(s));
+        for (String s : List.of("movingPlatform", "ring", "shield", "enemy", "projectile")) DYNAMIC.add(BODIES.get(s));
+    }
+
+    /** What a body of {@code who} gets back from both indices when asking for {@code layers}. */
+    private static List<String> hits(String who, int layers) {
+        Hitbox b = BODIES.get(who);
+        int mask = b.getMask() & layers; // come CollisionManager: maschera del richiedente ∩ layer cercati
+        List<Hitbox> found = new ArrayList<>();
+        List<Hitbox> tmp = new ArrayList<>();
+        STATIC.query(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY() + 50, mask, tmp);
+        found.addAll(tmp);
+        DYNAMIC.query(b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY() + 50, mask, tmp);
+        found.addAll(tmp);
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Hitbox> e : BODIES.entrySet()) {
+            if (e.getValue() != b && found.contains(e.getValue())) names.add(e.getKey());
+        }
+        return names;
+    }
+
+    @Test
+    void queriesArePrunedByMask() {
+        Object[][] table = {
+            // chi,         cosa cerca,                                    atteso
+            { "projectile", CollisionLayer.SOLID | CollisionLayer.ONE_WAY, List.of("platform") },          // attraversa le pedane
+            { "player",     CollisionLayer.SOLID,                          List.of("platform") },          // ostacoli e molle non sono terreno
+            { "player",     CollisionLayer.TRIGGER,                        List.of("obstacle", "spring") },
+            { "player",     CollisionLayer.ONE_WAY,                        List.of("movingPlatform") },
+            { "player",     CollisionLayer.PICKUP,                         List.of("ring", "shield") },
+            { "player",     CollisionLayer.ENEMY | CollisionLayer.ENEMY_PROJECTILE, List.of("enemy", "projectile") },
+            { "ring",       CollisionLayer.ALL,                            List.of("platform", "movingPlatform") }, // non vede i nemici
+            { "shield",     CollisionLayer.ALL,                            List.of() },
+            { "enemy",      CollisionLayer.ALL,                            List.of() },                    // nemmeno i pickup
+        };
+        for (Object[] row : table) {
+            assertEquals(row[2], hits((String) row[0], (Integer) row[1]), row[0] + " asking for " + Integer.toBinaryString((Integer) row[1]));
+        }
+    }
+
+    @Test
+    void canCollideNeedsBothMasks() {
+        Object[][] table = {
+            { "projectile", "movingPlatform", false },
+            { "projectile", "platform",       true  },
+            { "projectile", "player",         true  },
+            { "projectile", "enemy",          false },
+            { "ring",       "enemy",          false },
+            { "shield",     "enemy",          false },
+            { "ring",       "movingPlatform", true  },
+            { "obstacle",   "player",         true  },
+            { "obstacle",   "ring",           false },
+            { "enemy",      "enemy",          false },
+        };
+        for (Object[] row : table) {
+            Hitbox a = BODIES.get((String) row[0]), b = BODIES.get((String) row[1]);
+            assertEquals(row[2], CollisionLayer.canCollide(a, b), row[0] + " / " + row[1]);
+            assertEquals(row[2], CollisionLayer.canCollide(b, a), row[1] + " / " + row[0]);
+        }
+    }
+}
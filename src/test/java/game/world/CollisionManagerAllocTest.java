@@ -0,0 +1,65 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import game.Constants;
+import game.entities.Player;
+import game.sim.HeadlessLevel;
+import game.util.AllocationMeter;
+
+/**
+ * CollisionManager.update() must not allocate in steady state: 10k headless steps of Level 1,
+ * bytes measured per update() with the thread-allocation counter of ThreadMXBean.
+ * - Steps without gameplay events: each within STEP_BUDGET (the JVM may still link a branch
+ *   taken for the first time, or deoptimize a method and materialize objects it had
+ *   scalar-replaced) and together within QUIET_TOTAL, i.e. nothing per step.
+ * - Steps that raise events may allocate (a shooter's projectiles are new objects with
+ *   their sprites), within EVENT_BUDGET.
+ */
+class CollisionManagerAllocTest {
+
+    private static final int WARMUP = 600;
+    private static final int FRAMES = 10_000;
+    private static final long STEP_BUDGET = 2 * 1024L;
+    private static final long QUIET_TOTAL = 4 * 1024L; // 16 B a step farebbero 160 KB
+    private static final long EVENT_BUDGET = 16 * 1024L;
+
+    @Test
+    void updateIsAllocationFreeInSteadyState() {
+        AllocationMeter meter = new AllocationMeter();
+        assumeTrue(meter.isSupported(), "thread allocation counter not available on this VM");
+
+        HeadlessLevel h = HeadlessLevel.create(1);
+        Player player = h.getPlayer();
+        CollisionManager cm = h.getCollisionManager();
+
+        int quiet = 0;
+        long quietBytes = 0, worstQuiet = 0, worstEvent = 0;
+        for (int i = 0; i < WARMUP + FRAMES; i++) {
+            player.tick(Constants.SIM_DT);
+            meter.begin();
+            cm.update(Constants.SIM_DT);
+            long bytes = meter.end();
+            boolean events = cm.getQueuedEventCount() > 0;
+            cm.applyEvents();
+            cm.discardPresentation();
+            assertTrue(h.getRules().afterStep(), "level ended at step " + i);
+            if (i < WARMUP) continue;
+
+            if (events) {
+                worstEvent = Math.max(worstEvent, bytes);
+            } else {
+                quiet++;
+                quietBytes += bytes;
+                worstQuiet = Math.max(worstQuiet, bytes);
+            }
+        }
+        assertTrue(quiet > FRAMES / 2, "too few steps without events: " + quiet);
+        assertTrue(worstQuiet <= STEP_BUDGET, "step without events allocated " + worstQuiet + " B");
+        assertTrue(quietBytes <= QUIET_TOTAL, quiet + " steps without events allocated " + quietBytes + " B");
+        assertTrue(worstEvent <= EVENT_BUDGET, "step with events allocated " + worstEvent + " B");
+    }
+}
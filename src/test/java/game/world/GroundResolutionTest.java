@@ -0,0 +1,159 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.scene.Group;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import game.Constants;
+import game.entities.Player;
+import game.util.ResourceUtil;
+import game.world.elements.MovingPlatform;
+import game.world.elements.Platform;
+
+/**
+ * Landing physics: sweepTop (swept time of impact against the top of a surface) on its
+ * own, then resolveGround through CollisionManager.update() with a hand-moved player.
+ */
+class GroundResolutionTest {
+
+    private static final double EPS = 1e-9;
+
+    @BeforeAll
+    static void headless() {
+        ResourceUtil.setHeadless(true);
+    }
+
+    /** Box at (x0, y0) at the start of the step, at (x1, y1) now. */
+    private static Hitbox moving(double x0, double y0, double x1, double y1, double w, double h) {
+        Hitbox b = new Hitbox(x0, y0, w, h);
+        b.savePrevious();
+        b.setPosition(x1, y1);
+        return b;
+    }
+
+    // --- sweepTop ---
+
+    @Test
+    void fastFallThroughThinPlatformHitsItsTop() {
+        Hitbox thin = new Hitbox(0, 300, 400, 4);
+        // dt grande: 400 px in uno step, la box intera passa oltre i 4 px della piattaforma
+        Hitbox body = moving(100, 168, 100, 568, 32, 32);
+        assertEquals(0.25, CollisionManager.sweepTop(body, thin), EPS);
+    }
+
+    @Test
+    void spindashSpeedPastTheEdgeMisses() {
+        Hitbox ledge = new Hitbox(0, 300, 200, 20);
+        // a t = 0.5 il fondo raggiunge il top, ma la box è già a x = 310: oltre il bordo
+        Hitbox body = moving(20, 264, 600, 272, 32, 32);
+        assertTrue(body.getMaxX() > ledge.getMinX() && Math.min(body.getPrevX(), body.getMinX()) < ledge.getMaxX(),
+                "the swept box does overlap the ledge in x");
+        assertEquals(-1.0, CollisionManager.sweepTop(body, ledge));
+    }
+
+    @Test
+    void jumpingUpThroughFromBelowIsNotALanding() {
+        Hitbox oneWay = new Hitbox(0, 300, 200, 20);
+        Hitbox body = moving(50, 310, 50, 250, 32, 32); // sale attraverso la piattaforma
+        assertEquals(-1.0, CollisionManager.sweepTop(body, oneWay));
+        Hitbox above = moving(50, 250, 50, 200, 32, 32); // sale già sopra
+        assertEquals(-1.0, CollisionManager.sweepTop(above, oneWay));
+    }
+
+    @Test
+    void restingContactIsImmediate() {
+        Hitbox floor = new Hitbox(0, 300, 200, 20);
+        Hitbox body = moving(50, 268, 60, 268.5, 32, 32);
+        assertEquals(0.0, CollisionManager.sweepTop(body, floor), EPS);
+    }
+
+    @Test
+    void landingOnADescendingSurfaceFollowsIt() {
+        Hitbox mp = moving(0, 400, 0, 404, 200, 20); // scende di 4 px nello step
+        Hitbox body = moving(50, 366, 50, 376, 32, 32);
+        // fondo da 398 a 408, top da 400 a 404: si incontrano a t = 2 / 6
+        assertEquals(1.0 / 3.0, CollisionManager.sweepTop(body, mp), EPS);
+        Hitbox slow = moving(50, 368, 50, 369, 32, 32); // resta indietro: al ground stick
+        assertEquals(-1.0, CollisionManager.sweepTop(slow, mp));
+    }
+
+    // --- resolveGround, attraverso update() ---
+
+    private static final class Rig {
+        final Group world = new Group();
+        final Player player = new Player(world, 0, 0);
+        final CollisionManager cm = new CollisionManager(world, player);
+
+        /** One step: the player moves from where it is to (x, y) falling at vy, then update(dt). */
+        void step(double dt, double x, double y, double vy) {
+            Hitbox pb = player.getBounds();
+            pb.savePrevious();
+            pb.setPosition(x, y);
+            player.setVelocityY(vy);
+            cm.update(dt);
+        }
+
+        /** Puts the player at (x, y) with no motion in the step. */
+        void place(double x, double y) {
+            player.setPosition(x, y);
+        }
+
+        double bottom() { return player.getBounds().getMaxY(); }
+    }
+
+    @Test
+    void fastFallLandsOnThinPlatformAtLargeDt() {
+        Rig r = new Rig();
+        r.cm.addPlatform(new Platform(r.world, 0, 300.0, 400, 4));
+        r.place(100, 100);
+        r.step(0.1, 100, 500, 4000); // 400 px in uno step
+        assertEquals(300.0, r.bottom(), EPS);
+        assertEquals(0.0, r.player.getVelocityY());
+    }
+
+    @Test
+    void descendingMovingPlatformCarriesThePlayer() {
+        Rig r = new Rig();
+        MovingPlatform mp = new MovingPlatform(r.world, 100, 400.0, 120, MovingPlatform.Axis.VERTICAL, 90, 1.5);
+        r.cm.addMovingPlatform(mp);
+        r.place(140, 400 - 32);
+        double dt = Constants.SIM_DT;
+        double vy = 0;
+        // mezzo periodo in discesa: la pedana scende più in fretta della gravità di uno step
+        for (int i = 0; i < 100; i++) {
+            vy += 2200.0 * dt;
+            Hitbox pb = r.player.getBounds();
+            r.step(dt, pb.getMinX(), pb.getMinY() + vy * dt, vy);
+            assertEquals(mp.getBounds().getMinY(), r.bottom(), EPS, "step " + i);
+            assertEquals(0.0, r.player.getVelocityY(), "step " + i);
+            vy = 0;
+        }
+        assertTrue(mp.getBounds().getMinY() > 450, "platform went down");
+    }
+
+    @Test
+    void groundStickClosesASixPixelSeam() {
+        Rig r = new Rig();
+        r.cm.addPlatform(new Platform(r.world, 0, 500.0, 200));
+        r.cm.addPlatform(new Platform(r.world, 200, 506.0, 200)); // gradino di 6 px
+        r.place(205, 500 - 32);
+        r.step(Constants.SIM_DT, 210, 500 - 32 + 0.2, 20);
+        assertEquals(506.0, r.bottom(), EPS, "walked down the seam");
+        assertEquals(0.0, r.player.getVelocityY());
+    }
+
+    @Test
+    void groundStickDoesNotReachSevenPixels() {
+        Rig r = new Rig();
+        r.cm.addPlatform(new Platform(r.world, 0, 500.0, 200));
+        r.cm.addPlatform(new Platform(r.world, 200, 507.0, 200));
+        r.place(205, 500 - 32);
+        r.step(Constants.SIM_DT, 210, 500 - 32 + 0.2, 20);
+        assertEquals(500.2, r.bottom(), EPS, "airborne: left to gravity");
+        assertEquals(20.0, r.player.getVelocityY());
+    }
+}
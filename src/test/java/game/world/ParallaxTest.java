@@ -0,0 +1,54 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import game.util.ResourceUtil;
+
+class ParallaxTest {
+
+    @BeforeAll
+    static void headless() {
+        ResourceUtil.setHeadless(true);
+    }
+
+    @Test
+    void copiesFollowTheViewWidth() {
+        Parallax p = new Parallax(new Group());
+        Background sky = p.addLayer("file:sky.png", 800, 720, 0.2);
+        assertEquals(3, sky.getCopyCount()); // 1280 / 800 -> 2, +1 per il riavvolgimento
+
+        p.setViewWidth(2560);
+        assertEquals(5, sky.getCopyCount());
+        for (int i = 0; i < 5; i++) {
+            Node copy = sky.getNode().getChildren().get(i);
+            assertEquals(i * 800.0, copy.getTranslateX());
+        }
+        Background near = p.addLayer("file:near.png", 1000, 200, 0.8);
+        assertEquals(4, near.getCopyCount(), "layers added later use the current width");
+
+        p.setViewWidth(1280);
+        assertEquals(3, sky.getCopyCount());
+        assertEquals(3, near.getCopyCount());
+    }
+
+    @Test
+    void copiesCoverTheViewAtAnyOffset() {
+        Parallax p = new Parallax(new Group());
+        Background b = p.addLayer("file:sky.png", 700, 720, 0.5);
+        for (double view : new double[] { 1280, 1920, 3440 }) {
+            p.setViewWidth(view);
+            for (double cam = 0; cam < 5000; cam += 37) {
+                p.scrollTo(cam);
+                double right = b.getNode().getTranslateX() + b.getCopyCount() * 700.0;
+                assertTrue(right >= view, "gap at the right edge: view " + view + ", camX " + cam);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Group;
+import javafx.scene.input.KeyCode;
+
+import org.junit.jupiter.api.Test;
+
+import game.entities.EnemyBase;
+import game.entities.Projectile;
+import game.entities.ShooterEnemy;
+import game.entities.WalkerEnemy;
+import game.sim.HeadlessLevel;
+
+/**
+ * setParallelUpdate must not change the game: Level 1 plus a crowd of walkers and shooters
+ * (well above PARALLEL_THRESHOLD enemies and, once they fire, projectiles), run headless
+ * serial and parallel, compared step by step.
+ */
+class ParallelUpdateTest {
+
+    private static final int STEPS = 3000;
+    private static final int CROWD = 80; // coppie walker + shooter
+
+    private static final class Run {
+        final List<String> states = new ArrayList<>();
+        int maxEnemies, maxProjectiles;
+    }
+
+    private static Run run(boolean parallel) {
+        HeadlessLevel h = HeadlessLevel.create(1);
+        CollisionManager cm = h.getCollisionManager();
+        Group world = h.getWorld();
+        double y = h.getLevel().getGroundY() + 35;
+        for (int i = 0; i < CROWD; i++) {
+            double x = 900 + i * 50;
+            cm.addEnemy(new WalkerEnemy(world, x, y));
+            cm.addEnemy(new ShooterEnemy(world, x + 25, y, cm));
+        }
+        cm.setParallelUpdate(parallel);
+        h.press(KeyCode.RIGHT);
+
+        Run r = new Run();
+        for (int i = 0; i < STEPS && !h.isFinished(); i++) {
+            h.run(1);
+            r.maxEnemies = Math.max(r.maxEnemies, cm.getEnemyCount());
+            r.maxProjectiles = Math.max(r.maxProjectiles, cm.getProjectileCount());
+            r.states.add(state(h, cm));
+        }
+        return r;
+    }
+
+    // posizioni esatte (Double.toString è senza perdita) e ordine delle liste
+    private static String state(HeadlessLevel h, CollisionManager cm) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(h.getPlayer().getX()).append(',').append(h.getPlayer().getY())
+          .append(" rings=").append(h.getPlayer().getRings())
+          .append(" outcome=").append(h.getOutcome()).append(" |");
+        for (EnemyBase e : cm.enemies()) {
+            Hitbox b = e.getBounds();
+            sb.append(' ').append(b.getX()).append(',').append(b.getY()).append(e.isAlive() ? "" : "x");
+        }
+        sb.append(" |");
+        for (Projectile p : cm.projectiles()) {
+            Hitbox b = p.getBounds();
+            sb.append(' ').append(b.getX()).append(',').append(b.getY());
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void parallelAndSerialRunsAreIdentical() {
+        Run serial = run(false);
+        Run parallel = run(true);
+        assertTrue(serial.maxEnemies >= 64 && serial.maxProjectiles >= 64,
+                "parallel path not exercised: " + serial.maxEnemies + " enemies, " + serial.maxProjectiles + " projectiles");
+        assertEquals(serial.states.size(), parallel.states.size(), "runs ended at different steps");
+        for (int i = 0; i < serial.states.size(); i++) {
+            assertEquals(serial.states.get(i), parallel.states.get(i), "step " + i);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialGridTest {
+
+    private static final double CELL = 256.0;
+
+    @Test
+    void queryReturnsOverlapsInInsertionOrder() {
+        SpatialGrid<String> g = new SpatialGrid<>(CELL);
+        g.insert("wide", 0, 500, 2000, 520, CollisionLayer.SOLID);  // otto celle
+        g.insert("left", 100, 400, 200, 450, CollisionLayer.SOLID);
+        g.insert("far", 9000, 400, 9100, 450, CollisionLayer.SOLID);
+        g.insert("right", 600, 400, 700, 450, CollisionLayer.SOLID);
+
+        List<String> out = new ArrayList<>();
+        g.query(0, 0, 1000, 1000, CollisionLayer.ALL, out);
+        assertEquals(List.of("wide", "left", "right"), out, "once each, in insertion order");
+
+        g.query(650, 440, 660, 460, CollisionLayer.ALL, out);
+        assertEquals(List.of("right"), out);
+
+        g.query(200, 450, 200, 450, CollisionLayer.ALL, out);
+        assertEquals(List.of("left"), out, "edges included");
+    }
+
+    @Test
+    void layerMaskFiltersEntries() {
+        SpatialGrid<String> g = new SpatialGrid<>(CELL);
+        g.insert("solid", 0, 0, 100, 10, CollisionLayer.SOLID);
+        g.insert("oneWay", 0, 0, 100, 10, CollisionLayer.ONE_WAY);
+        List<String> out = new ArrayList<>();
+        g.query(0, 0, 100, 10, CollisionLayer.SOLID, out);
+        assertEquals(List.of("solid"), out);
+        g.query(0, 0, 100, 10, CollisionLayer.SOLID | CollisionLayer.ONE_WAY, out);
+        assertEquals(List.of("solid", "oneWay"), out);
+    }
+
+    @Test
+    void growsWithTheLevelAndMatchesALinearScan() {
+        SpatialGrid<Integer> g = new SpatialGrid<>(CELL);
+        int initial = g.getCapacity();
+        Random rnd = new Random(7);
+        List<double[]> boxes = new ArrayList<>();
+        // livello lungo e alto: molte più celle della tabella iniziale
+        for (int i = 0; i < 3000; i++) {
+            double x = rnd.nextDouble() * 200_000, y = rnd.nextDouble() * 20_000;
+            double[] b = { x, y, x + 20 + rnd.nextDouble() * 600, y + 10 + rnd.nextDouble() * 300 };
+            boxes.add(b);
+            g.insert(i, b[0], b[1], b[2], b[3], CollisionLayer.SOLID);
+        }
+        assertTrue(g.getCapacity() > initial, "table did not grow");
+        assertTrue(g.getCellCount() * 2 <= g.getCapacity(), "load factor above 1/2");
+
+        List<Integer> out = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int q = 0; q < 500; q++) {
+            double x = rnd.nextDouble() * 200_000, y = rnd.nextDouble() * 20_000;
+            double x1 = x + rnd.nextDouble() * 1500, y1 = y + rnd.nextDouble() * 800;
+            expected.clear();
+            for (int i = 0; i < boxes.size(); i++) {
+                double[] b = boxes.get(i);
+                if (b[2] >= x && b[0] <= x1 && b[3] >= y && b[1] <= y1) expected.add(i);
+            }
+            g.query(x, y, x1, y1, CollisionLayer.ALL, out);
+            assertEquals(expected, out, "query " + q);
+        }
+    }
+
+    @Test
+    void presizeAvoidsRehashWhileBuilding() {
+        SpatialGrid<Integer> g = new SpatialGrid<>(CELL);
+        g.presize(10_000, 2_000);
+        int capacity = g.getCapacity();
+        for (int x = 0; x < 10_000; x += 100) g.insert(x, x, 0, x + 50, 2_000, CollisionLayer.SOLID);
+        assertEquals(capacity, g.getCapacity());
+    }
+
+    @Test
+    void clearEmptiesTheGrid() {
+        SpatialGrid<String> g = new SpatialGrid<>(CELL);
+        g.insert("a", 0, 0, 10, 10, CollisionLayer.SOLID);
+        g.clear();
+        List<String> out = new ArrayList<>();
+        g.query(0, 0, 10, 10, CollisionLayer.ALL, out);
+        assertTrue(out.isEmpty());
+        assertEquals(0, g.size());
+        g.insert("b", 0, 0, 10, 10, CollisionLayer.SOLID);
+        g.query(0, 0, 10, 10, CollisionLayer.ALL, out);
+        assertEquals(List.of("b"), out);
+    }
+}
@@ -0,0 +1,141 @@
+package game.world;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SweepAndPruneTest {
+
+    private static final Comparator<Hitbox> BY_IDENTITY = Comparator.comparingInt(System::identityHashCode);
+
+    private static SweepAndPrune<Hitbox> index() {
+        return new SweepAndPrune<>(b -> b);
+    }
+
+    private static Hitbox box(double x, double y, double w, double h, int layer) {
+        Hitbox b = new Hitbox(x, y, w, h);
+        b.setFilter(layer, CollisionLayer.ALL);
+        return b;
+    }
+
+    private static List<Hitbox> sorted(List<Hitbox> l) {
+        List<Hitbox> c = new ArrayList<>(l);
+        c.sort(BY_IDENTITY);
+        return c;
+    }
+
+    private static List<Hitbox> bruteBox(List<Hitbox> live, double minX, double minY, double maxX, double maxY, int mask) {
+        List<Hitbox> out = new ArrayList<>();
+        for (Hitbox b : live) {
+            if ((b.getLayer() & mask) != 0 && b.intersects(minX, minY, maxX, maxY)) out.add(b);
+        }
+        return sorted(out);
+    }
+
+    private static List<Hitbox> bruteRadius(List<Hitbox> live, double cx, double cy, double r, int mask) {
+        List<Hitbox> out = new ArrayList<>();
+        for (Hitbox b : live) {
+            if ((b.getLayer() & mask) == 0) continue;
+            double nx = Math.max(b.getMinX(), Math.min(cx, b.getMaxX()));
+            double ny = Math.max(b.getMinY(), Math.min(cy, b.getMaxY()));
+            if ((cx - nx) * (cx - nx) + (cy - ny) * (cy - ny) <= r * r) out.add(b);
+        }
+        return sorted(out);
+    }
+
+    @Test
+    void queriesMatchABruteForceScanWhileObjectsMoveAndDespawn() {
+        Random rnd = new Random(3);
+        SweepAndPrune<Hitbox> sap = index();
+        List<Hitbox> live = new ArrayList<>();
+        int[] layers = { CollisionLayer.ENEMY, CollisionLayer.PICKUP, CollisionLayer.ENEMY_PROJECTILE, CollisionLayer.ONE_WAY };
+        for (int i = 0; i < 400; i++) {
+            Hitbox b = box(rnd.nextDouble() * 5000, rnd.nextDouble() * 800, 8 + rnd.nextDouble() * 120, 8 + rnd.nextDouble() * 60,
+                    layers[rnd.nextInt(layers.length)]);
+            live.add(b);
+            sap.add(b);
+        }
+        List<Hitbox> out = new ArrayList<>();
+        for (int step = 0; step < 200; step++) {
+            for (Hitbox b : live) {
+                b.translate(rnd.nextGaussian() * 6, rnd.nextGaussian() * 3);
+                sap.move(b);
+            }
+            // raffica di despawn e qualche spawn: le query a metà step vedono i marcati
+            for (int k = rnd.nextInt(12); k > 0 && !live.isEmpty(); k--) sap.remove(live.remove(rnd.nextInt(live.size())));
+            for (int k = rnd.nextInt(10); k > 0; k--) {
+                Hitbox b = box(rnd.nextDouble() * 5000, rnd.nextDouble() * 800, 8 + rnd.nextDouble() * 40, 8, layers[rnd.nextInt(layers.length)]);
+                live.add(b);
+                sap.add(b);
+            }
+            for (int pass = 0; pass < 2; pass++) {
+                for (int q = 0; q < 10; q++) {
+                    double x = rnd.nextDouble() * 5000, y = rnd.nextDouble() * 800;
+                    double w = rnd.nextDouble() * 400, h = rnd.nextDouble() * 200;
+                    int mask = (q % 3 == 0) ? CollisionLayer.ALL : layers[rnd.nextInt(layers.length)];
+                    sap.query(x, y, x + w, y + h, mask, out);
+                    assertEquals(bruteBox(live, x, y, x + w, y + h, mask), sorted(out), "box, step " + step);
+                    sap.queryRadius(x, y, w * 0.5, mask, out);
+                    assertEquals(bruteRadius(live, x, y, w * 0.5, mask), sorted(out), "radius, step " + step);
+                }
+                sap.compact(); // seconda passata: dopo la compattazione di fine step
+            }
+            assertEquals(live.size(), sap.size());
+        }
+    }
+
+    @Test
+    void queryResultsAreSortedByMinX() {
+        SweepAndPrune<Hitbox> sap = index();
+        Hitbox c = box(300, 0, 10, 10, CollisionLayer.ENEMY);
+        Hitbox a = box(100, 0, 10, 10, CollisionLayer.ENEMY);
+        Hitbox b = box(200, 0, 10, 10, CollisionLayer.ENEMY);
+        sap.add(c);
+        sap.add(a);
+        sap.add(b);
+        List<Hitbox> out = new ArrayList<>();
+        sap.query(0, 0, 1000, 10, CollisionLayer.ALL, out);
+        assertEquals(List.of(a, b, c), out);
+    }
+
+    @Test
+    void removingTheWidestProxyShrinksTheQueryReach() {
+        SweepAndPrune<Hitbox> sap = index();
+        Hitbox wide = box(0, 0, 4000, 20, CollisionLayer.ONE_WAY);
+        Hitbox small = box(500, 0, 30, 20, CollisionLayer.ENEMY);
+        sap.add(wide);
+        sap.add(small);
+        assertEquals(4000.0, sap.getMaxWidth());
+
+        sap.remove(wide);
+        List<Hitbox> out = new ArrayList<>();
+        sap.query(0, 0, 5000, 20, CollisionLayer.ALL, out);
+        assertEquals(List.of(small), out, "removed proxy skipped before compact()");
+        assertEquals(1, sap.size());
+
+        sap.compact();
+        assertEquals(30.0, sap.getMaxWidth());
+        sap.query(0, 0, 5000, 20, CollisionLayer.ALL, out);
+        assertEquals(List.of(small), out);
+    }
+
+    @Test
+    void removedObjectCanBeAddedAgain() {
+        SweepAndPrune<Hitbox> sap = index();
+        Hitbox b = box(10, 10, 10, 10, CollisionLayer.PICKUP);
+        sap.add(b);
+        sap.remove(b);
+        sap.add(b);
+        List<Hitbox> out = new ArrayList<>();
+        sap.query(0, 0, 100, 100, CollisionLayer.ALL, out);
+        assertEquals(List.of(b), out);
+        sap.compact();
+        sap.query(0, 0, 100, 100, CollisionLayer.ALL, out);
+        assertEquals(List.of(b), out);
+    }
+}